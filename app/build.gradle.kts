@@ -2,6 +2,11 @@ plugins {
     alias(libs.plugins.android.application)
 }
 
+val atlasDir = layout.buildDirectory.dir("generated/atlas")
+val atlasPacker by configurations.creating {
+    isCanBeConsumed = false
+}
+
 android {
     namespace = "com.example.spacegame"
     compileSdk = 35
@@ -29,10 +34,39 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    sourceSets {
+        getByName("main") {
+            assets.srcDir(atlasDir)
+        }
+    }
+}
+
+// Sprite frames in src/main/sprites are packed into one atlas per density bucket,
+// already at their final size, with an index of frame rectangles. Atlas sizes,
+// memory and decode times are printed and kept in build/reports/atlas.txt
+val packSpriteAtlas = tasks.register<JavaExec>("packSpriteAtlas") {
+    group = "build"
+    description = "Packs and pre-scales the sprite frames into per-density atlases"
+    val sprites = layout.projectDirectory.dir("src/main/sprites")
+    val report = layout.buildDirectory.file("reports/atlas.txt")
+    inputs.dir(sprites)
+    outputs.dir(atlasDir)
+    outputs.file(report)
+    classpath = atlasPacker
+    mainClass.set("com.example.spacegame.AtlasPacker")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(sprites.asFile.path, atlasDir.get().asFile.path, report.get().asFile.path)
+    })
+}
+
+tasks.named("preBuild") {
+    dependsOn(packSpriteAtlas)
 }
 
 dependencies {
 
+    implementation(project(":core"))
+    atlasPacker(project(path = ":core", configuration = "atlasPacker"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -1,87 +1,80 @@
 package com.example.spacegame;
 
-import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 
+// Bitmaps for the procedural Starfield: one opaque RGB_565 tile and a small star sprite per parallax layer
 public class Background {
-    private Bitmap bitmap;
-    private int width;
-    private int height;
-    private Paint paint;
-    
-    public Background(Context context, int screenWidth, int screenHeight) {
-        width = screenWidth;
-        height = screenHeight;
-        
-        // Load background bitmap or create placeholder
-        try {
-            bitmap = BitmapFactory.decodeResource(context.getResources(), R.drawable.space_background);
-        } catch (Exception e) {
-            bitmap = null;
-        }
-        
-        if (bitmap == null) {
-            // Create a simple space-like background as placeholder
-            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            Paint tempPaint = new Paint();
-            tempPaint.setColor(Color.BLACK);
-            
-            Canvas tempCanvas = new Canvas(bitmap);
-            tempCanvas.drawRect(0, 0, width, height, tempPaint);
-            
-            // Draw some stars
-            tempPaint.setColor(Color.WHITE);
-            for (int i = 0; i < 100; i++) {
-                int starX = (int) (Math.random() * width);
-                int starY = (int) (Math.random() * height);
-                int starSize = (int) (Math.random() * 5) + 1;
-                tempCanvas.drawCircle(starX, starY, starSize, tempPaint);
-            }
-        } else {
-            // Scale the bitmap to fit the screen
-            try {
-                bitmap = Bitmap.createScaledBitmap(bitmap, width, height, true);
-            } catch (Exception e) {
-                // If scaling fails, create a simple background
-                bitmap = createSimpleBackground(width, height);
-            }
+    private static final int SPACE_COLOR = Color.rgb(0x0A, 0x0E, 0x21);
+
+    private final Starfield starfield;
+    private final Bitmap[] tileFrames;
+    private final Bitmap[] starFrames;
+
+    public Background(int screenWidth, int screenHeight, long seed, long memoryBudgetBytes) {
+        starfield = new Starfield(seed, screenWidth, screenHeight, memoryBudgetBytes);
+        tileFrames = new Bitmap[]{createTile(starfield)};
+
+        starFrames = new Bitmap[Starfield.getLayerCount()];
+        for (int layer = 0; layer < starFrames.length; layer++) {
+            starFrames[layer] = createStar(Starfield.getStarDiameter(layer), layer);
         }
-        
-        paint = new Paint();
     }
-    
-    private Bitmap createSimpleBackground(int width, int height) {
-        Bitmap simpleBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-        Paint tempPaint = new Paint();
-        tempPaint.setColor(Color.BLACK);
-        
-        Canvas tempCanvas = new Canvas(simpleBitmap);
-        tempCanvas.drawRect(0, 0, width, height, tempPaint);
-        
-        // Draw some stars
-        tempPaint.setColor(Color.WHITE);
-        for (int i = 0; i < 100; i++) {
-            int starX = (int) (Math.random() * width);
-            int starY = (int) (Math.random() * height);
-            int starSize = (int) (Math.random() * 5) + 1;
-            tempCanvas.drawCircle(starX, starY, starSize, tempPaint);
+
+    // Deep blue tile with the faint, far away stars; no alpha needed
+    private static Bitmap createTile(Starfield starfield) {
+        int size = starfield.getTileSize();
+        Bitmap tile = Bitmap.createBitmap(size, size, Bitmap.Config.RGB_565);
+        Canvas canvas = new Canvas(tile);
+        canvas.drawColor(SPACE_COLOR);
+
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        for (int i = 0; i < starfield.getTileStarCount(); i++) {
+            int brightness = starfield.getTileStarBrightness(i);
+            paint.setColor(Color.rgb(brightness, brightness, brightness));
+            canvas.drawCircle(starfield.getTileStarX(i), starfield.getTileStarY(i),
+                    starfield.getTileStarRadius(i), paint);
         }
-        
-        return simpleBitmap;
+        return tile;
+    }
+
+    // Round star, brighter for nearer layers
+    private static Bitmap createStar(int diameter, int layer) {
+        Bitmap star = Bitmap.createBitmap(diameter, diameter, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(star);
+
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        int alpha = 140 + layer * 115 / Math.max(1, Starfield.getLayerCount() - 1);
+        paint.setColor(Color.argb(alpha, 255, 255, 255));
+        canvas.drawCircle(diameter / 2f, diameter / 2f, diameter / 2f, paint);
+        return star;
     }
-    
-    public void draw(Canvas canvas) {
-        if (canvas != null && bitmap != null) {
-            canvas.drawBitmap(bitmap, 0, 0, paint);
-        } else if (canvas != null) {
-            // If bitmap is still null, draw a black background
-            Paint blackPaint = new Paint();
-            blackPaint.setColor(Color.BLACK);
-            canvas.drawRect(0, 0, width, height, blackPaint);
+
+    public Starfield getStarfield() {
+        return starfield;
+    }
+
+    public Bitmap[] getTileFrames() {
+        return tileFrames;
+    }
+
+    public Bitmap[] getStarFrames() {
+        return starFrames;
+    }
+
+    // Bytes held by the tile and star bitmaps
+    public long getResidentBytes() {
+        long bytes = 0;
+        for (Bitmap tile : tileFrames) {
+            bytes += tile.getAllocationByteCount();
+        }
+        for (Bitmap star : starFrames) {
+            bytes += star.getAllocationByteCount();
         }
+        return bytes;
     }
-} 
\ No newline at end of file
+}
@@ -2,80 +2,28 @@ package com.example.spacegame;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
-import android.graphics.Rect;
 import android.graphics.Color;
 import android.graphics.Paint;
 
+// Sprites shared by all bullets; per-bullet state lives in the GameWorld bullet store
 public class Bullet {
-    private Bitmap[] bitmapFrames;
-    private int x;
-    private int y;
-    private int speed;
-    private Rect collisionRect;
+    private SpriteSet frames;
     
-    // Default dimensions
+    // Placeholder dimensions
     private static final int DEFAULT_WIDTH = 20;
     private static final int DEFAULT_HEIGHT = 40;
     
-    // Animation variables
-    private int currentFrame;
-    private long lastFrameChangeTime;
-    private int frameLengthInMilliseconds = 50; // milliseconds - faster than stones
+    // Sprite set in the atlas, see src/main/sprites/sprites.txt
+    private static final String BULLET_SET = "bullet";
     
-    // Total number of animation frames
-    private static final int FRAME_COUNT = 4;
-    
-    public Bullet(Context context, int x, int y) {
-        this.x = x;
-        this.y = y;
-        
-        // Set bullet speed
-        this.speed = 20;
-        
-        // Initialize bitmap frames for animation
-        bitmapFrames = new Bitmap[FRAME_COUNT];
-        boolean bitmapsLoaded = true;
-        
-        // Load bullet bitmaps
-        try {
-            bitmapFrames[0] = BitmapFactory.decodeResource(context.getResources(), R.drawable.bullet_00);
-            bitmapFrames[1] = BitmapFactory.decodeResource(context.getResources(), R.drawable.bullet_01);
-            bitmapFrames[2] = BitmapFactory.decodeResource(context.getResources(), R.drawable.bullet_02);
-            bitmapFrames[3] = BitmapFactory.decodeResource(context.getResources(), R.drawable.bullet_03);
-            
-            // Check if any bitmap is null
-            for (int i = 0; i < bitmapFrames.length; i++) {
-                if (bitmapFrames[i] == null) {
-                    bitmapsLoaded = false;
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            bitmapsLoaded = false;
-        }
-        
-        if (!bitmapsLoaded) {
-            // Create placeholders if resources not found
-            for (int i = 0; i < bitmapFrames.length; i++) {
-                bitmapFrames[i] = createBulletPlaceholder(i);
-            }
-        }
-        
-        // Initialize animation variables
-        currentFrame = 0;
-        lastFrameChangeTime = System.currentTimeMillis();
-        
-        // Get bitmap dimensions
-        int width = getWidth();
-        int height = getHeight();
-        
-        // Initialize collision rectangle
-        collisionRect = new Rect(x, y, x + width, y + height);
+    public Bullet(Context context) {
+        // Shared frames from the sprite cache
+        frames = SpriteCache.getInstance().getSet(context, BULLET_SET,
+                GameWorld.BULLET_CLIP.getFrameCount(), Bullet::createBulletPlaceholder);
     }
     
-    private Bitmap createBulletPlaceholder(int frameIndex) {
+    private static Bitmap createBulletPlaceholder(int frameIndex) {
         Bitmap bitmap = Bitmap.createBitmap(DEFAULT_WIDTH, DEFAULT_HEIGHT, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
         Paint paint = new Paint();
@@ -107,49 +55,19 @@ public class Bullet {
         return bitmap;
     }
     
-    public void update() {
-        // Move the bullet up
-        y -= speed;
-        
-        // Update collision rectangle
-        collisionRect.top = y;
-        collisionRect.bottom = y + getHeight();
-        
-        // Update animation frame
-        if (System.currentTimeMillis() > lastFrameChangeTime + frameLengthInMilliseconds) {
-            currentFrame++;
-            if (currentFrame >= bitmapFrames.length) {
-                currentFrame = 0;
-            }
-            lastFrameChangeTime = System.currentTimeMillis();
-        }
-    }
-    
-    public void draw(Canvas canvas) {
-        if (canvas != null && bitmapFrames[currentFrame] != null) {
-            canvas.drawBitmap(bitmapFrames[currentFrame], x, y, null);
-        }
-    }
-    
-    public int getX() {
-        return x;
-    }
-    
-    public int getY() {
-        return y;
+    public SpriteSet getFrames() {
+        return frames;
     }
     
     public int getWidth() {
-        return bitmapFrames != null && bitmapFrames[currentFrame] != null ? 
-               bitmapFrames[currentFrame].getWidth() : DEFAULT_WIDTH;
+        return frames.getWidth();
     }
     
     public int getHeight() {
-        return bitmapFrames != null && bitmapFrames[currentFrame] != null ? 
-               bitmapFrames[currentFrame].getHeight() : DEFAULT_HEIGHT;
+        return frames.getHeight();
     }
     
-    public Rect getCollisionRect() {
-        return collisionRect;
+    public SpriteSize getSize() {
+        return frames.getSize();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.spacegame;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+// Draws RenderCommandBuffer batches as bitmaps on an Android Canvas; sprite sets
+// from the atlas draw their frame's rectangle of the shared atlas bitmap
+public class CanvasRenderBackend implements RenderBackend {
+    private final Bitmap[][] sprites = new Bitmap[SceneRecorder.SPRITE_COUNT][];
+    private final SpriteSet[] spriteSets = new SpriteSet[SceneRecorder.SPRITE_COUNT];
+    private final RectF destination = new RectF();
+    private final Paint scaledPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private Canvas canvas;
+
+    // Frames to draw for a SceneRecorder sprite id
+    public void register(int sprite, Bitmap[] frames) {
+        sprites[sprite] = frames;
+        spriteSets[sprite] = null;
+    }
+
+    public void register(int sprite, SpriteSet frames) {
+        spriteSets[sprite] = frames;
+        sprites[sprite] = null;
+    }
+
+    // The canvas of the frame being drawn
+    public void setCanvas(Canvas canvas) {
+        this.canvas = canvas;
+    }
+
+    @Override
+    public void drawBatch(int sprite, int frame, float[] x, float[] y, int count) {
+        if (canvas == null) {
+            return;
+        }
+        SpriteSet set = spriteSets[sprite];
+        if (set != null) {
+            drawSetBatch(set, frame, x, y, count);
+            return;
+        }
+
+        Bitmap[] frames = sprites[sprite];
+        if (frames == null || frame >= frames.length || frames[frame] == null) {
+            return;
+        }
+        Bitmap bitmap = frames[frame];
+        for (int i = 0; i < count; i++) {
+            canvas.drawBitmap(bitmap, x[i], y[i], null);
+        }
+    }
+
+    private void drawSetBatch(SpriteSet set, int frame, float[] x, float[] y, int count) {
+        if (frame >= set.getFrameCount()) {
+            return;
+        }
+        Bitmap bitmap = set.getBitmap(frame);
+        Rect region = set.getRegion(frame);
+        float width = region.width() * set.getScale();
+        float height = region.height() * set.getScale();
+        Paint paint = set.getScale() == 1f ? null : scaledPaint;
+        for (int i = 0; i < count; i++) {
+            destination.set(x[i], y[i], x[i] + width, y[i] + height);
+            canvas.drawBitmap(bitmap, region, destination, paint);
+        }
+    }
+}
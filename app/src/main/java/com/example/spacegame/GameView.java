@@ -1,342 +1,665 @@
 package com.example.spacegame;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.Rect;
 import android.media.AudioAttributes;
 import android.media.SoundPool;
+import android.app.Activity;
 import android.os.Build;
-import android.os.Handler;
-import android.os.Looper;
+import android.os.PowerManager;
+import android.os.Trace;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class GameView extends SurfaceView implements Runnable {
+// Adapts Android input to the GameWorld simulation and renders its state.
+// The update thread owns the world and publishes a RenderSnapshot after each
+// frame's steps; the render thread draws the newest snapshot, so neither waits
+// for the other.
+public class GameView extends SurfaceView implements FixedStepLoop.Simulation, GameWorld.Listener, SoundPlayer,
+        QualityGovernor.Listener {
 
-    // Game thread
-    private Thread gameThread = null;
+    // Update and render threads
+    private Thread updateThread = null;
+    private Thread renderThread = null;
     private volatile boolean isPlaying;
-    private boolean gameOver = false;
+    
+    // World state handed from the update thread to the render thread
+    private TripleBuffer<RenderSnapshot> snapshots;
+    private long publishedTick;
+    
+    // Fixed-timestep loop, one GameWorld tick per step
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    
+    // Upper bound for the background's tile and star bitmaps
+    private static final long BACKGROUND_MEMORY_BUDGET = 512 * 1024;
+    private FixedStepLoop loop;
+    private Clock clock;
+    
+    // Performance instrumentation
+    private static final String TAG = "SpaceGame";
+    private final FrameStats frameStats = new FrameStats();
+    private final PauseDetector pauseDetector = new PauseDetector();
+    private PerformanceOverlay performanceOverlay;
+    
+    // Quality steps down when frames run late or the device nears throttling, judged on
+    // one-second windows of frame times (render thread) and the thermal headroom forecast,
+    // polled once a second by the update thread. Off in stress mode, which measures load
+    private static final int QUALITY_WINDOW_FRAMES = 60;
+    private static final long THERMAL_POLL_NANOS = 1_000_000_000L;
+    private static final int THERMAL_FORECAST_SECONDS = 10;
+    private final QualityGovernor quality = new QualityGovernor(GameWorld.STEP_NANOS, QUALITY_WINDOW_FRAMES);
+    private final PowerManager powerManager;
+    private long lastThermalPoll;
 
     // Drawing objects
     private SurfaceHolder surfaceHolder;
-    private Paint paint;
     private Canvas canvas;
+    private Hud hud;
+    
+    // Frames per second, counted by the render thread over one-second windows
+    private long fpsWindowStart;
+    private int fpsFrames;
+    private int fps;
 
-    // Game objects
+    // Startup phases run in parallel on background loader threads while the render thread
+    // shows a loading frame; the update thread creates the world once they're all done.
+    // Each phase is a systrace section and is timed in the startup trace
+    private static final int LOADER_THREADS = 3;
+    private static final long LOAD_POLL_NANOS = 50_000_000; // 50 ms
+    private final LoadStage startupLoad = new LoadStage();
+    private final StartupTrace startupTrace;
+    private volatile boolean loaded;
+    private final long seed;
+    private final Paint loadingPaint = new Paint();
+    // Render thread only
+    private boolean interactive;
+    
+    // Game simulation
+    private GameWorld world;
+    private final GameInput input = new GameInput();
+    private InputRecorder inputRecorder;
+    
+    // Stone waves, read from assets/waves.txt during startup
+    private static final String WAVES_ASSET = "waves.txt";
+    private WaveSchedule waveSchedule;
+    
+    // Stress mode: the STRESS waves, invulnerable ship sweeping the screen while firing
+    // volleys, and tick and frame times logged against entity count. No replay is saved
+    private static final int STRESS_CAPACITY = 4096;
+    private static final int STRESS_SHOTS_PER_TICK = 24;
+    private static final double STRESS_SWEEP_RATE = 0.02; // radians per tick
+    private static final int STRESS_LOG_TICKS = 600; // 10 s
+    private static final int LOAD_BUCKET_SIZE = 250;
+    private final boolean stressMode;
+    private final LoadCurve tickLoad = new LoadCurve(LOAD_BUCKET_SIZE, 2 * STRESS_CAPACITY);
+    private final LoadCurve frameLoad = new LoadCurve(LOAD_BUCKET_SIZE, 2 * STRESS_CAPACITY);
+    
+    // Sprite renderers, created by the loader threads; read only after startupLoad completes
     private Player player;
-    private List<Stone> stones;
-    private List<Bullet> bullets;
+    private Stone stoneType;
+    private Bullet bulletType;
     private Background background;
+    private Bitmap[] particleSprites;
+    
+    // Draw commands of the frame being rendered, replayed onto the canvas in batches
+    private final RenderCommandBuffer commands = new RenderCommandBuffer();
+    private final CanvasRenderBackend canvasBackend = new CanvasRenderBackend();
+    
+    // Input from the UI and sensor threads, applied by the update thread at the start of update()
+    private static final int TOUCH_QUEUE_CAPACITY = 64;
+    private final TouchQueue touches = new TouchQueue(TOUCH_QUEUE_CAPACITY);
+    
+    // Accelerometer x samples, smoothed with a predictive filter so the ship follows the tilt
+    // without the lag of a plain low-pass. The ring holds several batches at 100 Hz
+    private static final int SENSOR_QUEUE_CAPACITY = 64;
+    private static final long TILT_TIME_CONSTANT = 30_000_000; // 30 ms
+    private static final long TILT_MAX_PREDICTION = 50_000_000; // 50 ms
+    private final SensorPipeline tilt = new SensorPipeline(SENSOR_QUEUE_CAPACITY,
+            new TiltFilter(TILT_TIME_CONSTANT, true, TILT_MAX_PREDICTION));
+    
+    // Oldest touch applied since the last published snapshot, update thread only
+    private long pendingInputTime;
+    // Tick of the last snapshot whose input latency was recorded, render thread only
+    private long lastInputFrameTick = -1;
 
     // Screen dimensions
     private int screenWidth;
     private int screenHeight;
 
-    // Game variables
-    private long lastStoneTime;
-    private static final long STONE_SPAWN_INTERVAL = 2000; // 2 seconds
-    private Random random;
+    // Sound effects, posted to the sound bus and played by its audio thread
+    private static final int SOUND_SHOOT = 0;
+    private static final int SOUND_EXPLOSION = 1;
+    private static final int SOUND_GAME_OVER = 2;
+    private static final int MAX_VOICES = 5;
+    private static final long SOUND_MERGE_WINDOW = 50_000_000; // 50 ms
+    private static final int SOUND_QUEUE_CAPACITY = 256;
+    private volatile SoundPool soundPool;
+    private SoundBus soundBus;
+    private final int[] soundIds = new int[3];
+    private volatile boolean soundsLoaded = false;
 
-    // Sound effects
-    private SoundPool soundPool;
-    private int shootSound;
-    private int explosionSound;
-    private int gameOverSound;
-    private boolean soundsLoaded = false;
+    public GameView(Context context, int screenWidth, int screenHeight, StartupTrace startupTrace,
+                    boolean stressMode) {
+        this(context, screenWidth, screenHeight, startupTrace, stressMode, Clock.SYSTEM);
+    }
 
-    public GameView(Context context, int screenWidth, int screenHeight) {
+    GameView(Context context, int screenWidth, int screenHeight, StartupTrace startupTrace,
+             boolean stressMode, Clock clock) {
         super(context);
+        long start = clock.nanoTime();
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
+        this.stressMode = stressMode;
         
         // Initialize objects
         surfaceHolder = getHolder();
-        paint = new Paint();
-        random = new Random();
+        this.clock = clock;
+        this.startupTrace = startupTrace;
+        loop = new FixedStepLoop(clock, GameWorld.STEP_NANOS, MAX_STEPS_PER_FRAME);
+        performanceOverlay = new PerformanceOverlay(frameStats);
+        quality.setListener(this);
+        powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        
+        // One seed for the background and the simulation
+        seed = System.nanoTime();
+        
+        // Decode sprites, build the background and HUD and load sounds in the background;
+        // the render thread shows progress meanwhile
+        startLoading(context);
+        loadingPaint.setColor(Color.WHITE);
+        
+        // Sound events; durations are roughly those of the clips in res/raw
+        soundBus = new SoundBus(this, clock, MAX_VOICES, SOUND_MERGE_WINDOW, SOUND_QUEUE_CAPACITY);
+        soundBus.register(SOUND_SHOOT, 1, 300_000_000L);
+        soundBus.register(SOUND_EXPLOSION, 2, 800_000_000L);
+        soundBus.register(SOUND_GAME_OVER, 3, 2_000_000_000L);
+        
+        startupTrace.record("view", start, clock.nanoTime());
+    }
+
+    // Queues the startup phases. The sprites phase decodes the one sprite atlas through the
+    // sprite cache, so the entities created during play only ever hit it
+    private void startLoading(Context context) {
+        startupLoad.add("sprites", traced("sprites", () -> {
+            player = new Player(context);
+            stoneType = new Stone(context);
+            bulletType = new Bullet(context);
+        }));
+        startupLoad.add("background", traced("background", () -> background = new Background(
+                screenWidth, screenHeight, seed, BACKGROUND_MEMORY_BUDGET)));
+        startupLoad.add("hud", traced("hud", () -> hud = new Hud(screenWidth, screenHeight)));
+        startupLoad.add("particles", traced("particles", () -> particleSprites = createParticleSprites()));
+        startupLoad.add("sounds", traced("sounds", () -> loadSounds(context)));
+        startupLoad.add("waves", traced("waves", () -> waveSchedule = stressMode
+                ? WaveSchedule.STRESS : loadWaves(context)));
         
-        // Initialize game objects
-        player = new Player(context, screenWidth, screenHeight);
-        // Use thread-safe collections to prevent ConcurrentModificationException
-        stones = new CopyOnWriteArrayList<>();
-        bullets = new CopyOnWriteArrayList<>();
-        background = new Background(context, screenWidth, screenHeight);
+        ExecutorService loader = Executors.newFixedThreadPool(LOADER_THREADS,
+                task -> new Thread(task, "SpaceGame-loader"));
+        startupLoad.start(loader);
+        // The loader threads exit once the queued tasks are done
+        loader.shutdown();
+    }
+    
+    // Runs a startup phase as a systrace section and records it in the startup trace
+    private Runnable traced(String phase, Runnable task) {
+        return () -> {
+            Trace.beginSection(phase);
+            long start = clock.nanoTime();
+            try {
+                task.run();
+            } finally {
+                startupTrace.record(phase, start, clock.nanoTime());
+                Trace.endSection();
+            }
+        };
+    }
+    
+    // Update thread; waits for the sprites, then builds the world. Returns false if the
+    // game was paused first
+    private boolean finishLoading() {
+        try {
+            while (!startupLoad.await(LOAD_POLL_NANOS)) {
+                if (!isPlaying) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        
+        Trace.beginSection("world");
+        long start = clock.nanoTime();
+        canvasBackend.register(SceneRecorder.SPRITE_HUD, hud.getFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_BACKGROUND, background.getTileFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_STAR, background.getStarFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_PLAYER, player.getFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_BULLET, bulletType.getFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_STONE, stoneType.getFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_STONE_EXPLOSION, stoneType.getExplosionFrames());
+        canvasBackend.register(SceneRecorder.SPRITE_PARTICLE, particleSprites);
         
-        // Initialize game state
-        lastStoneTime = System.currentTimeMillis();
+        // Initialize the simulation; only the update thread touches it
+        int capacity = stressMode ? STRESS_CAPACITY : GameWorld.STONE_CAPACITY;
+        world = new GameWorld(screenWidth, screenHeight, player.getSize(),
+                stoneType.getSize(), bulletType.getSize(), seed, capacity, capacity, waveSchedule);
+        world.setListener(this);
+        world.setInvulnerable(stressMode);
+        
+        // Record every tick's input so the session can be replayed off-device
+        if (!stressMode) {
+            inputRecorder = new InputRecorder(world);
+        }
         
-        // Initialize sounds
-        initSounds(context);
+        // Snapshots for the render thread, starting with the initial state
+        snapshots = new TripleBuffer<>(new RenderSnapshot(world), new RenderSnapshot(world),
+                new RenderSnapshot(world));
+        snapshots.getWriteBuffer().copyFrom(world, clock.nanoTime());
+        snapshots.publish();
+        publishedTick = world.getTickCount();
+        
+        // From here on every decode is a hitch during play
+        SpriteCache.getInstance().endLoading();
+        startupTrace.record("world", start, clock.nanoTime());
+        Trace.endSection();
+        loaded = true;
+        return true;
+    }
+
+    // Loader thread; one soft dot per particle palette color
+    private static Bitmap[] createParticleSprites() {
+        int size = ParticleSystem.PARTICLE_SIZE;
+        Bitmap[] sprites = new Bitmap[ParticleSystem.PALETTE.length];
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            paint.setColor(ParticleSystem.PALETTE[i]);
+            new Canvas(sprites[i]).drawCircle(size / 2f, size / 2f, size / 2f, paint);
+        }
+        return sprites;
+    }
+
+    // Loader thread; a broken or missing asset falls back to the classic waves
+    private static WaveSchedule loadWaves(Context context) {
+        try (InputStream in = context.getAssets().open(WAVES_ASSET)) {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                text.write(buffer, 0, count);
+            }
+            return WaveSchedule.parse(new String(text.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Can't load " + WAVES_ASSET + ", using the classic waves", e);
+            return WaveSchedule.CLASSIC;
+        }
     }
 
-    private void initSounds(Context context) {
+    // Loader thread; creates the pool and queues the clips. They decode asynchronously and
+    // the game plays silently until all of them are ready
+    private void loadSounds(Context context) {
         // Create SoundPool with builder for compatibility
+        SoundPool pool;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             AudioAttributes audioAttributes = new AudioAttributes.Builder()
                     .setUsage(AudioAttributes.USAGE_GAME)
                     .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
                     .build();
             
-            soundPool = new SoundPool.Builder()
-                    .setMaxStreams(5)
+            pool = new SoundPool.Builder()
+                    .setMaxStreams(MAX_VOICES)
                     .setAudioAttributes(audioAttributes)
                     .build();
         } else {
             // Deprecated method for older devices
-            soundPool = new SoundPool(5, android.media.AudioManager.STREAM_MUSIC, 0);
+            pool = new SoundPool(MAX_VOICES, android.media.AudioManager.STREAM_MUSIC, 0);
         }
         
-        // Set flag when sounds are loaded
-        soundPool.setOnLoadCompleteListener((soundPool, sampleId, status) -> {
+        // Play each clip silently as soon as it has decoded, so the first real play doesn't pay
+        // for starting the stream, and enable sounds once they all have. This replaces a blind
+        // delay before the warm-up
+        long start = clock.nanoTime();
+        CountDownLatch pending = new CountDownLatch(soundIds.length);
+        pool.setOnLoadCompleteListener((soundPool, sampleId, status) -> {
             if (status == 0) {
+                soundPool.play(sampleId, 0, 0, 1, 0, 1.0f);
+            } else {
+                Log.w(TAG, "Can't load sound " + sampleId + ", status " + status);
+            }
+            pending.countDown();
+            if (pending.getCount() == 0) {
                 soundsLoaded = true;
+                startupTrace.record("sounds decoded", start, clock.nanoTime());
             }
         });
         
         // Load sound effects
         try {
-            shootSound = soundPool.load(context, R.raw.shoot, 1);
-            explosionSound = soundPool.load(context, R.raw.explosion, 1);
-            gameOverSound = soundPool.load(context, R.raw.game_over, 1);
-            
-            // Pre-load by playing silent sounds (workaround for common SoundPool issue)
-            new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                if (soundPool != null) {
-                    soundPool.play(shootSound, 0, 0, 1, 0, 1.0f);
-                    soundPool.play(explosionSound, 0, 0, 1, 0, 1.0f);
-                    soundPool.play(gameOverSound, 0, 0, 1, 0, 1.0f);
-                }
-            }, 300);
-            
+            soundIds[SOUND_SHOOT] = pool.load(context, R.raw.shoot, 1);
+            soundIds[SOUND_EXPLOSION] = pool.load(context, R.raw.explosion, 1);
+            soundIds[SOUND_GAME_OVER] = pool.load(context, R.raw.game_over, 1);
         } catch (Exception e) {
             // Sounds might not be available, handle the exception
             e.printStackTrace();
         }
+        // Publishes soundIds to the audio thread, which checks soundPool before playing
+        soundPool = pool;
     }
 
-    @Override
-    public void run() {
-        while (isPlaying) {
-            update();
-            draw();
-            control();
+    private void runUpdateLoop() {
+        if (!loaded && !finishLoading()) {
+            return;
         }
-    }
-
-    private void update() {
-        // Update player position based on accelerometer data
-        player.update();
         
-        // Update bullets
-        updateBullets();
+        // Don't simulate the time spent paused, or apply taps and tilt from before it
+        loop.reset();
+        touches.clear();
+        tilt.clear();
         
-        // Update stones
-        updateStones();
-        
-        // Check if it's time to spawn a new stone
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastStoneTime > STONE_SPAWN_INTERVAL) {
-            spawnStone();
-            lastStoneTime = currentTime;
-        }
-        
-        // Check for collisions
-        checkCollisions();
-        
-        // Check game over condition
-        if (player.getLives() <= 0 && !gameOver) {
-            gameOver = true;
+        while (isPlaying) {
+            long waitNanos = loop.runFrame(this);
+            pollThermalHeadroom();
             
-            // Play game over sound
-            if (soundsLoaded) {
-                soundPool.play(gameOverSound, 1.0f, 1.0f, 1, 0, 1.0f);
-            }
+            long waitStart = clock.nanoTime();
+            control(waitNanos);
+            frameStats.record(FrameStats.PHASE_WAIT, clock.nanoTime() - waitStart);
         }
     }
 
-    private void updateBullets() {
-        Iterator<Bullet> iterator = bullets.iterator();
-        List<Bullet> bulletsToRemove = new ArrayList<>();
+    private void runRenderLoop() {
+        fpsWindowStart = clock.nanoTime();
+        fpsFrames = 0;
         
-        // Identify bullets to remove
-        for (Bullet bullet : bullets) {
-            bullet.update();
+        while (isPlaying) {
+            long frameStart = clock.nanoTime();
+            if (!surfaceHolder.getSurface().isValid()) {
+                // Nothing to draw on yet, check again in a frame's time
+                control(loop.getStepNanos());
+                continue;
+            }
+            if (!loaded) {
+                drawLoadingFrame();
+                control(loop.getStepNanos());
+                continue;
+            }
             
-            // Mark bullets that are off-screen for removal
-            if (bullet.getY() < 0) {
-                bulletsToRemove.add(bullet);
+            RenderSnapshot snapshot = snapshots.acquire();
+            drawFrame(snapshot, snapshot.alphaAt(frameStart, loop.getStepNanos()));
+            long frameNanos = clock.nanoTime() - frameStart;
+            frameStats.record(FrameStats.PHASE_FRAME, frameNanos);
+            if (stressMode) {
+                frameLoad.record(snapshot.getStones().size() + snapshot.getBullets().size(), frameNanos);
+            } else {
+                quality.recordFrame(frameNanos);
             }
         }
-        
-        // Remove bullets that are off-screen
-        bullets.removeAll(bulletsToRemove);
+    }
+    
+    // Update thread; the headroom forecast is a binder call, so it's only asked for once
+    // a second, which is also as often as the platform answers it
+    private void pollThermalHeadroom() {
+        if (powerManager == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return;
+        }
+        long now = clock.nanoTime();
+        if (now - lastThermalPoll < THERMAL_POLL_NANOS) {
+            return;
+        }
+        lastThermalPoll = now;
+        quality.setThermalHeadroom(powerManager.getThermalHeadroom(THERMAL_FORECAST_SECONDS));
+    }
+    
+    // Render thread, on every quality change. The new resolution takes effect when the
+    // surface is resized on the UI thread; until then frames scale to whatever size it has
+    @Override
+    public void onQualityChange(QualityLevel from, QualityLevel to, String reason) {
+        Log.i(TAG, "Quality " + from + " -> " + to + " (" + reason + "): "
+                + Math.round(quality.getSlowFraction() * 100) + "% slow frames, mean "
+                + quality.getAverageFrameNanos() / 100_000 / 10f + " ms, thermal headroom "
+                + quality.getThermalHeadroom());
+        if (from.getResolutionScale() != to.getResolutionScale()) {
+            int width = Math.round(screenWidth * to.getResolutionScale());
+            int height = Math.round(screenHeight * to.getResolutionScale());
+            post(() -> surfaceHolder.setFixedSize(width, height));
+        }
     }
 
-    private void updateStones() {
-        List<Stone> stonesToRemove = new ArrayList<>();
+    @Override
+    public void update() {
+        long start = clock.nanoTime();
         
-        // Identify stones to remove
-        for (Stone stone : stones) {
-            stone.update();
-            
-            // Check if explosion animation is complete
-            if (stone.isExploding() && stone.isExplosionComplete()) {
-                stonesToRemove.add(stone);
+        // Apply the taps queued by the UI thread: a tap restarts a finished game, otherwise it fires
+        int shots = 0;
+        boolean restart = false;
+        while (touches.poll()) {
+            long touchTime = touches.getPolledTime();
+            frameStats.recordInputToTick(start - touchTime);
+            if (pendingInputTime == 0 || touchTime < pendingInputTime) {
+                pendingInputTime = touchTime;
             }
-            // Mark stones that are off-screen for removal
-            else if (stone.getY() > screenHeight) {
-                // Player loses a life if a stone passes the bottom without being destroyed
-                if (!stone.isExploding()) {
-                    player.decreaseLives();
-                    
-                    // Play explosion sound
-                    if (soundsLoaded) {
-                        soundPool.play(explosionSound, 1.0f, 1.0f, 1, 0, 1.0f);
-                    }
-                    
-                    // Force the stone to explode as visual feedback
-                    stone.decreaseHealth();
-                    while (stone.getHealth() > 0) {
-                        stone.decreaseHealth();
-                    }
-                    
-                    // We don't immediately remove exploding stones
-                    // They'll be removed after their explosion animation completes
-                } else {
-                    stonesToRemove.add(stone);
-                }
+            
+            if (world.isGameOver()) {
+                restart = true;
+            } else {
+                shots++;
             }
         }
+        // Tilt: every sensor sample since the last tick goes through the filter
+        input.set(tilt.sample(start), restart ? 0 : shots, restart);
+        input.setEntityLimit(quality.getLevel().getEntityLimit());
+        if (stressMode) {
+            // Sweep the ship across the screen, firing a volley every tick
+            float sweep = (float) Math.sin(world.getTickCount() * STRESS_SWEEP_RATE);
+            input.set(2f * sweep, STRESS_SHOTS_PER_TICK, false);
+        } else {
+            inputRecorder.record(input);
+        }
+        
+        world.tick(input);
         
-        // Remove stones that are off-screen or finished exploding
-        stones.removeAll(stonesToRemove);
+        long updateNanos = clock.nanoTime() - start;
+        frameStats.record(FrameStats.PHASE_UPDATE, updateNanos);
+        ParticleSystem particles = world.getParticles();
+        frameStats.record(FrameStats.PHASE_PARTICLES, particles.getLastUpdateNanos());
+        frameStats.recordParticles(particles.size(), particles.getDroppedCount());
+        if (stressMode) {
+            tickLoad.record(world.getStones().size() + world.getBullets().size(), updateNanos);
+            if (world.getTickCount() % STRESS_LOG_TICKS == 0) {
+                logStress();
+            }
+        }
+    }
+    
+    // Update thread, stress mode only. Frame times are read while the render thread
+    // records them, so a row can be off by a sample
+    private void logStress() {
+        StringBuilder report = new StringBuilder("Stress: wave ").append(world.getWave())
+                .append(", stones ").append(world.getStones().size())
+                .append(", bullets ").append(world.getBullets().size()).append('\n');
+        tickLoad.dump("tick", report);
+        frameLoad.dump("frame", report);
+        Log.i(TAG, report.toString());
     }
 
-    private void spawnStone() {
-        // Position the stone randomly along the X-axis at the top of the screen
-        int x = random.nextInt(screenWidth - 100);
-        int health = random.nextInt(3) + 1; // Random health between 1 and 3
-        Stone stone = new Stone(getContext(), x, 0, health);
-        stones.add(stone);
+    // GameWorld callbacks run on the update thread and only queue the sound
+    @Override
+    public void onShoot() {
+        soundBus.post(SOUND_SHOOT, 0.5f);
     }
 
-    private void checkCollisions() {
-        // Lists to track items that need to be removed
-        List<Bullet> bulletsToRemove = new ArrayList<>();
-        List<Stone> stonesToRemove = new ArrayList<>();
-        
-        // Check bullet-stone collisions
-        for (Bullet bullet : bullets) {
-            if (bulletsToRemove.contains(bullet)) continue;
-            
-            for (Stone stone : stones) {
-                // Skip stones that are already exploding or marked for removal
-                if (stonesToRemove.contains(stone) || stone.isExploding()) continue;
-                
-                // Simple rectangle-based collision detection
-                if (Rect.intersects(bullet.getCollisionRect(), stone.getCollisionRect())) {
-                    // Bullet hit stone
-                    stone.decreaseHealth();
-                    bulletsToRemove.add(bullet);
-                    
-                    // Play explosion sound if stone is destroyed (health <= 0)
-                    if (stone.getHealth() <= 0 && soundsLoaded) {
-                        soundPool.play(explosionSound, 0.7f, 0.7f, 1, 0, 1.0f);
-                    }
-                    
-                    break; // Bullet can only hit one stone
-                }
-            }
+    @Override
+    public void onExplosion(float volume) {
+        soundBus.post(SOUND_EXPLOSION, volume);
+    }
+
+    @Override
+    public void onGameOver() {
+        soundBus.post(SOUND_GAME_OVER, 1.0f);
+    }
+
+    // SoundPlayer, called by the sound bus on its audio thread
+    @Override
+    public int play(int sound, float volume, int priority) {
+        if (!soundsLoaded || soundPool == null) {
+            return 0;
         }
-        
-        // Check player-stone collisions
-        for (Stone stone : stones) {
-            // Skip stones that are already exploding or marked for removal
-            if (stonesToRemove.contains(stone) || stone.isExploding()) continue;
-            
-            if (Rect.intersects(player.getCollisionRect(), stone.getCollisionRect())) {
-                // Stone hit player
-                player.decreaseLives();
-                stone.decreaseHealth(); // This will trigger the explosion animation
-                
-                // Play explosion sound
-                if (soundsLoaded) {
-                    soundPool.play(explosionSound, 1.0f, 1.0f, 1, 0, 1.0f);
-                }
-            }
+        return soundPool.play(soundIds[sound], volume, volume, priority, 0, 1.0f);
+    }
+
+    @Override
+    public void setVolume(int stream, float volume) {
+        soundPool.setVolume(stream, volume, volume);
+    }
+
+    @Override
+    public void stop(int stream) {
+        soundPool.stop(stream);
+    }
+
+    // Runs on the update thread after each frame's steps: publishes the newest state
+    // for the render thread, which interpolates on its own clock
+    @Override
+    public void render(float alpha) {
+        if (world.getTickCount() == publishedTick) {
+            return;
         }
+        publishedTick = world.getTickCount();
         
-        // Apply all the removals at once
-        bullets.removeAll(bulletsToRemove);
-        stones.removeAll(stonesToRemove);
+        long stepTime = clock.nanoTime() - (long) (alpha * loop.getStepNanos());
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        snapshot.copyFrom(world, stepTime);
+        snapshot.setInputTimeNanos(pendingInputTime);
+        pendingInputTime = 0;
+        snapshots.publish();
     }
 
-    private void draw() {
-        if (surfaceHolder.getSurface().isValid()) {
-            canvas = surfaceHolder.lockCanvas();
-            
-            // Draw background
-            background.draw(canvas);
+    // Render thread only
+    private void drawFrame(RenderSnapshot snapshot, float alpha) {
+        long start = clock.nanoTime();
+        updateHud(snapshot, start);
+        
+        canvas = surfaceHolder.lockCanvas();
+        if (canvas != null) {
+            // Lower quality levels shrink the surface; everything is still laid out in screen pixels
+            float scale = (float) canvas.getWidth() / screenWidth;
+            if (scale != 1f) {
+                canvas.scale(scale, scale);
+            }
             
-            // Draw player
-            player.draw(canvas);
+            // Draw background, player, bullets, stones and HUD, batched by layer and bitmap
+            commands.clear();
+            SceneRecorder.record(snapshot, alpha, background.getStarfield(), quality.getLevel(), commands);
+            hud.record(commands, snapshot.isGameOver());
+            commands.sort();
+            canvasBackend.setCanvas(canvas);
+            commands.submit(canvasBackend);
             
-            // Thread-safe way to draw bullets
-            for (Bullet bullet : bullets) {
-                if (bullet != null) {
-                    bullet.draw(canvas);
-                }
+            // Draw performance overlay below the HUD, if enabled
+            if (performanceOverlay.isVisible()) {
+                frameStats.updatePauses(pauseDetector);
+                frameStats.updateSensor(tilt);
+                performanceOverlay.draw(canvas, 40, 80);
             }
             
-            // Thread-safe way to draw stones
-            for (Stone stone : stones) {
-                if (stone != null) {
-                    stone.draw(canvas);
-                }
+            surfaceHolder.unlockCanvasAndPost(canvas);
+            if (!interactive) {
+                interactive = true;
+                reportColdStart();
             }
             
-            // Draw HUD (player lives)
-            drawHUD();
-            
-            // Draw game over screen if game is over
-            if (gameOver) {
-                drawGameOver();
+            // Latency of the touches this snapshot is the first to show, until the frame is
+            // posted; the compositor adds up to one more vsync before it's on screen
+            long inputTime = snapshot.getInputTimeNanos();
+            if (inputTime != 0 && snapshot.getTickCount() != lastInputFrameTick) {
+                lastInputFrameTick = snapshot.getTickCount();
+                frameStats.recordInputToFrame(clock.nanoTime() - inputTime);
             }
-            
-            surfaceHolder.unlockCanvasAndPost(canvas);
         }
+        
+        frameStats.recordEntityCounts(snapshot.getStones().size(), snapshot.getBullets().size());
+        frameStats.recordSnapshotCounts(snapshots.getDroppedCount(), snapshots.getDuplicatedCount());
+        frameStats.record(FrameStats.PHASE_RENDER, clock.nanoTime() - start);
     }
 
-    private void drawHUD() {
-        paint.setColor(Color.WHITE);
-        paint.setTextSize(50);
-        canvas.drawText("Vidas: " + player.getLives(), 50, 50, paint);
+    // Render thread only; the lightweight first frames, a progress bar while startup runs
+    private void drawLoadingFrame() {
+        canvas = surfaceHolder.lockCanvas();
+        if (canvas == null) {
+            return;
+        }
+        canvas.drawColor(Color.BLACK);
+        float width = screenWidth * 0.6f;
+        float left = (screenWidth - width) / 2;
+        float top = screenHeight / 2f;
+        canvas.drawRect(left, top, left + width * startupLoad.getProgress(), top + 12, loadingPaint);
+        surfaceHolder.unlockCanvasAndPost(canvas);
+        startupTrace.markFirstFrame(clock.nanoTime());
+    }
+    
+    // Render thread, once: the first game frame is posted, so startup is over. Logs the trace
+    // and reports the cold start as fully drawn, which shows up in logcat and in startup
+    // benchmarks as the time to full display
+    private void reportColdStart() {
+        if (!startupTrace.markInteractive(clock.nanoTime())) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("Cold start ")
+                .append(startupTrace.getColdStartNanos() / 1_000_000).append(" ms\n");
+        startupTrace.dump(report);
+        appendSpriteAtlas(report);
+        Log.i(TAG, report.toString());
+        
+        if (getContext() instanceof Activity) {
+            Activity activity = (Activity) getContext();
+            post(activity::reportFullyDrawn);
+        }
     }
 
-    private void drawGameOver() {
-        paint.setColor(Color.RED);
-        paint.setTextSize(100);
-        canvas.drawText("GAME OVER", screenWidth / 2 - 250, screenHeight / 2, paint);
+    // Render thread only; HUD fields redraw their bitmaps only when a value changed
+    private void updateHud(RenderSnapshot snapshot, long now) {
+        fpsFrames++;
+        long elapsed = now - fpsWindowStart;
+        if (elapsed >= 1_000_000_000L) {
+            fps = (int) Math.round(fpsFrames * 1e9 / elapsed);
+            fpsWindowStart = now;
+            fpsFrames = 0;
+        }
         
-        paint.setColor(Color.WHITE);
-        paint.setTextSize(50);
-        canvas.drawText("Toque para reiniciar", screenWidth / 2 - 150, screenHeight / 2 + 100, paint);
+        hud.set(Hud.FIELD_LIVES, snapshot.getLives());
+        hud.set(Hud.FIELD_SCORE, snapshot.getScore());
+        boolean statsVisible = performanceOverlay.isVisible();
+        if (statsVisible) {
+            hud.set(Hud.FIELD_FPS, fps);
+            hud.set(Hud.FIELD_STONES, snapshot.getStones().size());
+            hud.set(Hud.FIELD_BULLETS, snapshot.getBullets().size());
+        }
+        hud.setStatsVisible(statsVisible);
     }
 
-    private void control() {
-        // Control the game's frame rate
+    private void control(long waitNanos) {
+        // Only wait when we're ahead of the next simulation step
+        if (waitNanos <= 0) {
+            return;
+        }
         try {
-            gameThread.sleep(17); // Approximately 60 FPS
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
@@ -345,11 +668,18 @@ public class GameView extends SurfaceView implements Runnable {
     public void pause() {
         isPlaying = false;
         try {
-            gameThread.join();
+            updateThread.join();
+            renderThread.join();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
         
+        // Write out this session's frame timing
+        soundBus.stop();
+        pauseDetector.stop();
+        dumpFrameStats();
+        saveInputLog();
+        
         // Release sound resources when game is paused
         if (soundPool != null) {
             soundPool.autoPause();
@@ -358,8 +688,21 @@ public class GameView extends SurfaceView implements Runnable {
 
     public void resume() {
         isPlaying = true;
-        gameThread = new Thread(this);
-        gameThread.start();
+        frameStats.reset();
+        tickLoad.reset();
+        frameLoad.reset();
+        pauseDetector.reset();
+        if (loaded) {
+            snapshots.resetStatistics();
+        }
+        tilt.resetStatistics();
+        quality.reset();
+        updatePauseDetector();
+        soundBus.start();
+        updateThread = new Thread(this::runUpdateLoop, "SpaceGame-update");
+        renderThread = new Thread(this::runRenderLoop, "SpaceGame-render");
+        updateThread.start();
+        renderThread.start();
         
         // Resume sounds
         if (soundPool != null) {
@@ -369,37 +712,106 @@ public class GameView extends SurfaceView implements Runnable {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        switch (event.getAction()) {
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
-                // Fire a bullet when the screen is tapped
-                if (!gameOver) {
-                    Bullet bullet = new Bullet(getContext(), player.getX() + player.getWidth() / 2, player.getY());
-                    bullets.add(bullet);
-                    
-                    // Play shoot sound
-                    if (soundsLoaded) {
-                        soundPool.play(shootSound, 0.5f, 0.5f, 1, 0, 1.0f);
-                    }
-                } else {
-                    // Restart the game if it's over
-                    restartGame();
-                }
+                // Hand the tap to the update thread, which decides between firing and restarting.
+                // Event times are uptimeMillis, the same monotonic clock as System.nanoTime on Android
+                touches.offer(event.getX(), event.getY(), event.getEventTime() * 1_000_000L);
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                // A second finger toggles the performance overlay
+                performanceOverlay.toggle();
+                updatePauseDetector();
                 break;
         }
         return true;
     }
 
-    private void restartGame() {
-        gameOver = false;
-        player.reset();
-        stones.clear();
-        bullets.clear();
-        lastStoneTime = System.currentTimeMillis();
+    // Logs the frame timing histograms collected since the last resume
+    public void dumpFrameStats() {
+        frameStats.updatePauses(pauseDetector);
+        frameStats.updateSensor(tilt);
+        StringBuilder report = new StringBuilder("Frame stats\n");
+        frameStats.dump(report);
+        SpriteCache sprites = SpriteCache.getInstance();
+        appendSpriteAtlas(report);
+        report.append("sprite decodes ").append(sprites.getDecodeCount())
+                .append(", after loading ").append(sprites.getLateDecodeCount()).append('\n');
+        report.append("quality ").append(quality.getLevel()).append(", ")
+                .append(quality.getChangeCount()).append(" changes\n");
+        soundBus.dump(report);
+        Log.i(TAG, report.toString());
+    }
+
+    // Atlas bucket, size, resident sprite memory and how long its decode took at startup
+    private static void appendSpriteAtlas(StringBuilder report) {
+        SpriteCache sprites = SpriteCache.getInstance();
+        report.append("sprite atlas ").append(sprites.getAtlasDensity()).append(' ')
+                .append(sprites.getAtlasWidth()).append('x').append(sprites.getAtlasHeight())
+                .append(", ").append(sprites.getResidentBytes() / 1024).append(" KB, decoded in ")
+                .append(sprites.getAtlasDecodeNanos() / 1_000_000).append(" ms\n");
+    }
+
+    // Writes the session recorded so far to files/replays, replacing the previous save
+    public void saveInputLog() {
+        if (!loaded || stressMode) {
+            return;
+        }
+        File directory = new File(getContext().getFilesDir(), "replays");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Can't create " + directory);
+            return;
+        }
+        
+        File file = new File(directory, "session-" + world.getSeed() + ".sglog");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            inputRecorder.toLog().write(out);
+            Log.i(TAG, "Saved " + inputRecorder.getTickCount() + " ticks to " + file);
+        } catch (IOException e) {
+            Log.w(TAG, "Can't save input log", e);
+        }
+    }
+
+    public StartupTrace getStartupTrace() {
+        return startupTrace;
+    }
+
+    public QualityGovernor getQualityGovernor() {
+        return quality;
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    public void setPerformanceOverlayVisible(boolean visible) {
+        performanceOverlay.setVisible(visible);
+        updatePauseDetector();
+    }
+
+    // Pause sampling wakes up every millisecond, so it only runs while the overlay shows it
+    private void updatePauseDetector() {
+        if (isPlaying && performanceOverlay.isVisible()) {
+            pauseDetector.start();
+        } else {
+            pauseDetector.stop();
+        }
+    }
+
+    // Simulation state, exposed for statistics; owned by the update thread while playing,
+    // null until the sprites have loaded
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    // Loop statistics, e.g. steps dropped on slow devices
+    public FixedStepLoop getLoop() {
+        return loop;
     }
 
-    // Method to update player's horizontal acceleration
-    public void updatePlayerAcceleration(float acceleration) {
-        player.setAcceleration(acceleration);
+    // Sensor thread: queues an accelerometer x sample, timestamped on the System.nanoTime clock
+    public void onAccelerometerSample(float acceleration, long timeNanos) {
+        tilt.offer(acceleration, timeNanos);
     }
     
     // Release resources when the game view is destroyed
@@ -0,0 +1,157 @@
+package com.example.spacegame;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * Heads-up display text, cached as one bitmap per field.
+ *
+ * A field's bitmap is redrawn only when its value changes, formatted through a
+ * reused TextLine, so a steady frame just draws the cached bitmaps and
+ * allocates nothing. The bitmaps are the frames of SceneRecorder.SPRITE_HUD
+ * and are drawn through the render command buffer.
+ */
+public class Hud {
+
+    // Fields, also the frame index of each field's bitmap
+    public static final int FIELD_LIVES = 0;
+    public static final int FIELD_SCORE = 1;
+    public static final int FIELD_FPS = 2;
+    public static final int FIELD_STONES = 3;
+    public static final int FIELD_BULLETS = 4;
+    public static final int FIELD_GAME_OVER = 5;
+    public static final int FIELD_RESTART = 6;
+    public static final int FIELD_COUNT = 7;
+
+    // Widest value a numeric field is sized for
+    private static final String WIDEST_VALUE = "-2147483648";
+
+    private static final float STATS_TEXT_SIZE = 32;
+    private static final float STATS_SPACING = 30;
+
+    // One cached line of text
+    private static class Field {
+        final String label;
+        final Paint paint;
+        final Bitmap bitmap;
+        final Canvas canvas;
+        final float baseline;
+        final boolean rightAligned;
+        float x;
+        float y;
+        long value = Long.MIN_VALUE;
+
+        Field(String label, boolean numeric, float textSize, int color, Paint.Align align) {
+            this.label = label;
+            rightAligned = align == Paint.Align.RIGHT;
+            paint = new Paint();
+            paint.setAntiAlias(true);
+            paint.setColor(color);
+            paint.setTextSize(textSize);
+            paint.setTextAlign(align);
+
+            int width = (int) Math.ceil(paint.measureText(numeric ? label + WIDEST_VALUE : label));
+            int height = (int) Math.ceil(paint.descent() - paint.ascent());
+            baseline = -paint.ascent();
+            bitmap = Bitmap.createBitmap(Math.max(1, width), Math.max(1, height), Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        }
+
+        // Places the field so its text baseline starts (or ends, if right-aligned) at x, y
+        void placeAt(float x, float y) {
+            this.x = rightAligned ? x - bitmap.getWidth() : x;
+            this.y = y - baseline;
+        }
+
+        void draw(TextLine text) {
+            bitmap.eraseColor(Color.TRANSPARENT);
+            float textX = rightAligned ? bitmap.getWidth() : 0;
+            canvas.drawText(text.getChars(), 0, text.length(), textX, baseline, paint);
+        }
+    }
+
+    private final Field[] fields = new Field[FIELD_COUNT];
+    private final Bitmap[] frames = new Bitmap[FIELD_COUNT];
+    private final TextLine text = new TextLine();
+    private boolean statsVisible;
+
+    // Statistics
+    private long rebuildCount;
+
+    public Hud(int screenWidth, int screenHeight) {
+        fields[FIELD_LIVES] = new Field("Vidas: ", true, 50, Color.WHITE, Paint.Align.LEFT);
+        fields[FIELD_LIVES].placeAt(50, 50);
+        fields[FIELD_SCORE] = new Field("Pontos: ", true, 50, Color.WHITE, Paint.Align.RIGHT);
+        fields[FIELD_SCORE].placeAt(screenWidth - 50, 50);
+
+        // Stats row along the bottom of the screen
+        fields[FIELD_FPS] = new Field("FPS ", true, STATS_TEXT_SIZE, Color.GREEN, Paint.Align.LEFT);
+        fields[FIELD_STONES] = new Field("Pedras ", true, STATS_TEXT_SIZE, Color.GREEN, Paint.Align.LEFT);
+        fields[FIELD_BULLETS] = new Field("Tiros ", true, STATS_TEXT_SIZE, Color.GREEN, Paint.Align.LEFT);
+        float x = 40;
+        for (int field = FIELD_FPS; field <= FIELD_BULLETS; field++) {
+            fields[field].placeAt(x, screenHeight - 40);
+            x += fields[field].bitmap.getWidth() + STATS_SPACING;
+        }
+
+        // Static text, drawn once
+        fields[FIELD_GAME_OVER] = new Field("GAME OVER", false, 100, Color.RED, Paint.Align.LEFT);
+        fields[FIELD_GAME_OVER].placeAt(screenWidth / 2 - 250, screenHeight / 2);
+        fields[FIELD_RESTART] = new Field("Toque para reiniciar", false, 50, Color.WHITE, Paint.Align.LEFT);
+        fields[FIELD_RESTART].placeAt(screenWidth / 2 - 150, screenHeight / 2 + 100);
+        for (int field = FIELD_GAME_OVER; field <= FIELD_RESTART; field++) {
+            fields[field].draw(text.clear().append(fields[field].label));
+        }
+
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            frames[field] = fields[field].bitmap;
+        }
+    }
+
+    // Sets a numeric field, redrawing its bitmap only if the value changed
+    public void set(int field, long value) {
+        Field f = fields[field];
+        if (f.value == value) {
+            return;
+        }
+        f.value = value;
+        f.draw(text.clear().append(f.label).append(value));
+        rebuildCount++;
+    }
+
+    // Shows the FPS and entity count row
+    public void setStatsVisible(boolean visible) {
+        statsVisible = visible;
+    }
+
+    public void record(RenderCommandBuffer commands, boolean gameOver) {
+        add(commands, FIELD_LIVES);
+        add(commands, FIELD_SCORE);
+        if (statsVisible) {
+            add(commands, FIELD_FPS);
+            add(commands, FIELD_STONES);
+            add(commands, FIELD_BULLETS);
+        }
+        if (gameOver) {
+            add(commands, FIELD_GAME_OVER);
+            add(commands, FIELD_RESTART);
+        }
+    }
+
+    private void add(RenderCommandBuffer commands, int field) {
+        Field f = fields[field];
+        commands.add(SceneRecorder.SPRITE_HUD, field, f.x, f.y, SceneRecorder.LAYER_HUD);
+    }
+
+    // Frames for SceneRecorder.SPRITE_HUD; redrawn in place, so registering them once is enough
+    public Bitmap[] getFrames() {
+        return frames;
+    }
+
+    // Number of times a field's bitmap had to be redrawn
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+}
@@ -6,6 +6,10 @@ import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.DisplayMetrics;
 import android.view.WindowManager;
 
@@ -16,11 +20,37 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     private GameView gameView;
     private SensorManager sensorManager;
     private Sensor accelerometer;
+    
+    // Accelerometer callbacks run on their own thread rather than the UI thread
+    private HandlerThread sensorThread;
+    
+    // The first activity of the process measures startup from process start (cold start);
+    // a recreated one from its own onCreate
+    private static boolean coldStart = true;
+    
+    // Launch with --ez stress true to load-test the device with thousands of entities
+    public static final String EXTRA_STRESS = "stress";
+    
+    // 100 Hz sampling, delivered in batches of up to ~2 frames to cut wakeups;
+    // every sample keeps its own timestamp, so batching costs latency but no samples
+    private static final int SENSOR_SAMPLING_PERIOD_US = 10_000;
+    private static final int SENSOR_MAX_REPORT_LATENCY_US = 33_000;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        long start = System.nanoTime();
         super.onCreate(savedInstanceState);
         
+        // Process start is on the uptime clock, the same clock as System.nanoTime
+        StartupTrace startupTrace;
+        if (coldStart) {
+            coldStart = false;
+            startupTrace = new StartupTrace(Process.getStartUptimeMillis() * 1_000_000L);
+            startupTrace.record("process", startupTrace.getStartNanos(), start);
+        } else {
+            startupTrace = new StartupTrace(start);
+        }
+        
         // Set window to fullscreen
         getWindow().setFlags(WindowManager.LayoutParams.FLAG_FULLSCREEN, 
                 WindowManager.LayoutParams.FLAG_FULLSCREEN);
@@ -40,9 +70,11 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
             accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
         }
         
-        // Create and set GameView
-        gameView = new GameView(this, screenWidth, screenHeight);
+        // Create and set GameView; it only starts loading, the heavy work runs in the background
+        boolean stress = getIntent() != null && getIntent().getBooleanExtra(EXTRA_STRESS, false);
+        gameView = new GameView(this, screenWidth, screenHeight, startupTrace, stress);
         setContentView(gameView);
+        startupTrace.record("activity", start, System.nanoTime());
     }
 
     @Override
@@ -50,7 +82,10 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         super.onResume();
         // Register accelerometer listener
         if (sensorManager != null && accelerometer != null) {
-            sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_GAME);
+            sensorThread = new HandlerThread("SpaceGame-sensor");
+            sensorThread.start();
+            sensorManager.registerListener(this, accelerometer, SENSOR_SAMPLING_PERIOD_US,
+                    SENSOR_MAX_REPORT_LATENCY_US, new Handler(sensorThread.getLooper()));
         }
         // Resume game
         gameView.resume();
@@ -63,6 +98,10 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         if (sensorManager != null) {
             sensorManager.unregisterListener(this);
         }
+        if (sensorThread != null) {
+            sensorThread.quitSafely();
+            sensorThread = null;
+        }
         // Pause game
         gameView.pause();
     }
@@ -82,8 +121,12 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
             // Get accelerometer data (we only need x-axis for horizontal movement)
             float acceleration = event.values[0];
             
-            // Pass acceleration value to GameView to update player position
-            gameView.updatePlayerAcceleration(acceleration);
+            // Sensor timestamps count from boot including deep sleep (elapsedRealtimeNanos);
+            // move them onto System.nanoTime, which the game loop measures latency with
+            long offset = SystemClock.elapsedRealtimeNanos() - System.nanoTime();
+            
+            // Queue the sample for the update thread, which filters it at the next tick
+            gameView.onAccelerometerSample(acceleration, event.timestamp - offset);
         }
     }
 
@@ -0,0 +1,119 @@
+package com.example.spacegame;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// Draws FrameStats percentiles on screen; text is built in a reused TextLine so drawing doesn't allocate
+public class PerformanceOverlay {
+    private static final float TEXT_SIZE = 32;
+    private static final float LINE_HEIGHT = 38;
+
+    private final FrameStats stats;
+    private final Paint paint;
+    private final Paint backgroundPaint;
+    private final TextLine line = new TextLine(80);
+    private volatile boolean visible;
+
+    public PerformanceOverlay(FrameStats stats) {
+        this.stats = stats;
+        
+        paint = new Paint();
+        paint.setColor(Color.GREEN);
+        paint.setTextSize(TEXT_SIZE);
+        
+        backgroundPaint = new Paint();
+        backgroundPaint.setColor(Color.argb(160, 0, 0, 0));
+    }
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public void draw(Canvas canvas, float left, float top) {
+        if (!visible || canvas == null) {
+            return;
+        }
+
+        int lineCount = FrameStats.PHASE_COUNT + 6;
+        canvas.drawRect(left, top, left + 700, top + lineCount * LINE_HEIGHT + 10, backgroundPaint);
+
+        float y = top + LINE_HEIGHT;
+        for (int phase = 0; phase < FrameStats.PHASE_COUNT; phase++) {
+            beginLine(FrameStats.getPhaseName(phase));
+            appendPercentiles(stats.getPhase(phase));
+            drawLine(canvas, left + 10, y);
+            y += LINE_HEIGHT;
+        }
+
+        beginLine("gc");
+        appendPercentiles(stats.getPauses());
+        drawLine(canvas, left + 10, y);
+        y += LINE_HEIGHT;
+
+        beginLine("tap>tk");
+        appendPercentiles(stats.getInputToTick());
+        drawLine(canvas, left + 10, y);
+        y += LINE_HEIGHT;
+
+        beginLine("tap>fr");
+        appendPercentiles(stats.getInputToFrame());
+        drawLine(canvas, left + 10, y);
+        y += LINE_HEIGHT;
+
+        // Sample age when a tick used it, and the rate the sensor actually delivers
+        beginLine("tilt");
+        appendPercentiles(stats.getSensorToTick());
+        line.append(' ').append(Math.round(stats.getSensorRate())).append("Hz");
+        drawLine(canvas, left + 10, y);
+        y += LINE_HEIGHT;
+
+        line.clear().append("stones ").append(stats.getStoneCount())
+                .append("  bullets ").append(stats.getBulletCount())
+                .append("  particles ").append(stats.getParticleCount());
+        drawLine(canvas, left + 10, y);
+        y += LINE_HEIGHT;
+
+        line.clear().append("dropped ").append(stats.getDroppedSnapshots())
+                .append("  duplicated ").append(stats.getDuplicatedSnapshots());
+        drawLine(canvas, left + 10, y);
+    }
+
+    private void beginLine(String name) {
+        line.clear().append(name).padTo(7);
+    }
+
+    private void appendPercentiles(Histogram histogram) {
+        line.append("p50 ");
+        appendMillis(histogram.getValueAtPercentile(50));
+        line.append(" p95 ");
+        appendMillis(histogram.getValueAtPercentile(95));
+        line.append(" p99 ");
+        appendMillis(histogram.getValueAtPercentile(99));
+        line.append(" max ");
+        appendMillis(histogram.getMax());
+    }
+
+    // Appends nanoseconds as milliseconds with two decimals
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10_000;
+        line.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    private void drawLine(Canvas canvas, float x, float y) {
+        canvas.drawText(line.getChars(), 0, line.length(), x, y, paint);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.spacegame;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of sprite frame sets, all cut from one sprite atlas.
+ *
+ * The build packs every sprite frame into one atlas image per density bucket,
+ * already at its final size (see SpriteAtlas). The first set asked for decodes
+ * the atlas of the bucket that fits the screen, once, without any scaling;
+ * every set after that is a list of rectangles in that one bitmap, and the
+ * same SpriteSet is handed to every Stone, Bullet and Player that asks for it.
+ * Returned sets and bitmaps are shared: callers must not modify or recycle
+ * them. If the atlas or a set is missing, the set falls back to placeholders.
+ *
+ * Once endLoading() is called the atlas should be resident; a decode after
+ * that point is counted as late and logged, and the late count is the metric
+ * that gameplay never decodes.
+ */
+public final class SpriteCache {
+
+    // Builds a fallback frame when a set isn't in the atlas
+    public interface PlaceholderFactory {
+        Bitmap create(int frameIndex);
+    }
+
+    private static final String TAG = "SpriteCache";
+
+    private static final SpriteCache INSTANCE = new SpriteCache();
+
+    private final Map<String, SpriteSet> sets = new HashMap<>();
+
+    // The decoded atlas, null until loaded or if it couldn't be
+    private boolean atlasLoaded;
+    private SpriteAtlas atlas;
+    private Bitmap atlasBitmap;
+    private String atlasDensity;
+    private float atlasScale = 1f;
+    private long atlasDecodeNanos;
+
+    // Statistics
+    private long hitCount;
+    private long missCount;
+    private long residentBytes;
+    private long decodeCount;
+    private long lateDecodeCount;
+    private boolean loadingEnded;
+
+    private SpriteCache() {
+    }
+
+    public static SpriteCache getInstance() {
+        return INSTANCE;
+    }
+
+    // The named set from the atlas, or placeholderCount placeholder frames
+    public synchronized SpriteSet getSet(Context context, String name, int placeholderCount,
+                                         PlaceholderFactory placeholderFactory) {
+        SpriteSet set = sets.get(name);
+        if (set != null) {
+            hitCount++;
+            return set;
+        }
+        missCount++;
+        if (!atlasLoaded) {
+            loadAtlas(context);
+        }
+
+        int index = atlas != null ? atlas.findSet(name) : -1;
+        if (index >= 0) {
+            int count = atlas.getFrameCount(index);
+            Bitmap[] bitmaps = new Bitmap[count];
+            Arrays.fill(bitmaps, atlasBitmap);
+            Rect[] regions = new Rect[count];
+            for (int f = 0; f < count; f++) {
+                int x = atlas.getFrameX(index, f);
+                int y = atlas.getFrameY(index, f);
+                regions[f] = new Rect(x, y, x + atlas.getFrameWidth(index, f), y + atlas.getFrameHeight(index, f));
+            }
+            set = new SpriteSet(bitmaps, regions, atlasScale);
+        } else {
+            Log.w(TAG, "No sprite set " + name + " in the atlas, using placeholders");
+            Bitmap[] frames = new Bitmap[placeholderCount];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = placeholderFactory.create(i);
+                residentBytes += frames[i].getAllocationByteCount();
+            }
+            set = SpriteSet.of(frames);
+        }
+        sets.put(name, set);
+        return set;
+    }
+
+    // Decodes the atlas of the density bucket closest above the screen's, as is
+    private void loadAtlas(Context context) {
+        atlasLoaded = true;
+        decodeCount++;
+        if (loadingEnded) {
+            lateDecodeCount++;
+            Log.w(TAG, "Decoding the sprite atlas after loading ended");
+        }
+
+        int dpi = context.getResources().getDisplayMetrics().densityDpi;
+        int bucket = SpriteAtlas.pickDensity(dpi);
+        String density = SpriteAtlas.DENSITIES[bucket];
+        AssetManager assets = context.getAssets();
+        long start = System.nanoTime();
+        try (InputStream in = new BufferedInputStream(assets.open(SpriteAtlas.indexPath(density)))) {
+            SpriteAtlas index = SpriteAtlas.read(in);
+            Bitmap bitmap = decodeAtlas(assets, density);
+            if (bitmap == null || bitmap.getWidth() != index.getWidth() || bitmap.getHeight() != index.getHeight()) {
+                Log.w(TAG, "Sprite atlas " + density + " doesn't match its index");
+                return;
+            }
+            atlas = index;
+            atlasBitmap = bitmap;
+            atlasDensity = density;
+            atlasScale = (float) dpi / SpriteAtlas.DENSITY_DPI[bucket];
+            residentBytes += bitmap.getAllocationByteCount();
+        } catch (IOException e) {
+            Log.w(TAG, "Can't load sprite atlas " + density, e);
+        } finally {
+            atlasDecodeNanos = System.nanoTime() - start;
+        }
+    }
+
+    private static Bitmap decodeAtlas(AssetManager assets, String density) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // Frames are already at the bucket's size
+        options.inScaled = false;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        try (InputStream in = new BufferedInputStream(assets.open(SpriteAtlas.imagePath(density)))) {
+            return BitmapFactory.decodeStream(in, null, options);
+        }
+    }
+
+    // Marks the end of the loading stage; later decodes count as late
+    public synchronized void endLoading() {
+        loadingEnded = true;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    // Atlas decodes so far; one per process
+    public synchronized long getDecodeCount() {
+        return decodeCount;
+    }
+
+    // Decodes after endLoading(); should stay 0
+    public synchronized long getLateDecodeCount() {
+        return lateDecodeCount;
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    // Density bucket of the decoded atlas, null if none was loaded
+    public synchronized String getAtlasDensity() {
+        return atlasDensity;
+    }
+
+    public synchronized int getAtlasWidth() {
+        return atlas != null ? atlas.getWidth() : 0;
+    }
+
+    public synchronized int getAtlasHeight() {
+        return atlas != null ? atlas.getHeight() : 0;
+    }
+
+    // Time spent reading the index and decoding the atlas image
+    public synchronized long getAtlasDecodeNanos() {
+        return atlasDecodeNanos;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.spacegame;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+/**
+ * Frames of one sprite: for each frame the bitmap it lives in and its
+ * rectangle there, plus the scale they're drawn at.
+ *
+ * Frames from the sprite atlas all share the atlas bitmap; placeholder frames
+ * are whole bitmaps of their own. Sets are shared and must not be modified.
+ */
+public final class SpriteSet {
+    private final Bitmap[] bitmaps;
+    private final Rect[] regions;
+    private final float scale;
+
+    SpriteSet(Bitmap[] bitmaps, Rect[] regions, float scale) {
+        this.bitmaps = bitmaps;
+        this.regions = regions;
+        this.scale = scale;
+    }
+
+    // Whole bitmaps drawn at their own size
+    static SpriteSet of(Bitmap[] frames) {
+        Rect[] regions = new Rect[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            regions[i] = new Rect(0, 0, frames[i].getWidth(), frames[i].getHeight());
+        }
+        return new SpriteSet(frames, regions, 1f);
+    }
+
+    public int getFrameCount() {
+        return bitmaps.length;
+    }
+
+    public Bitmap getBitmap(int frame) {
+        return bitmaps[frame];
+    }
+
+    // Source rectangle of a frame in its bitmap
+    public Rect getRegion(int frame) {
+        return regions[frame];
+    }
+
+    // Screen pixels per bitmap pixel; below 1 when the atlas is from a denser bucket
+    public float getScale() {
+        return scale;
+    }
+
+    // Size of the first frame on screen
+    public int getWidth() {
+        return Math.round(regions[0].width() * scale);
+    }
+
+    public int getHeight() {
+        return Math.round(regions[0].height() * scale);
+    }
+
+    public SpriteSize getSize() {
+        return new SpriteSize(getWidth(), getHeight());
+    }
+}
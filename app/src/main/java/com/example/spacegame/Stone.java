@@ -2,123 +2,36 @@ package com.example.spacegame;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
-import android.graphics.Rect;
 import android.graphics.Color;
 import android.graphics.Paint;
 
+// Sprites shared by all stones; per-stone state lives in the GameWorld stone store
 public class Stone {
-    private Bitmap[] bitmapFrames;
-    private int x;
-    private int y;
-    private int speed;
-    private int health;
-    private Rect collisionRect;
+    private SpriteSet rockFrames;
     
-    // Animation variables
-    private int currentFrame;
-    private long lastFrameChangeTime;
-    private int frameLengthInMilliseconds = 200; // milliseconds
-    
-    // Default size for stones if bitmap can't be loaded (reduced by 50%)
+    // Size of the placeholders used if the atlas has no stone sprites
     private static final int DEFAULT_WIDTH = 40;
     private static final int DEFAULT_HEIGHT = 40;
     
-    // Scale factor for resizing
-    private static final float SCALE_FACTOR = 0.5f; // 50% size
-    
-    // Total number of animation frames
-    private static final int FRAME_COUNT = 4;
+    // Sprite sets in the atlas, see src/main/sprites/sprites.txt
+    private static final String ROCK_SET = "rock";
+    private static final String EXPLOSION_SET = "explosion";
     
     // Explosion animation
-    private Bitmap[] explosionFrames;
-    private boolean exploding = false;
-    private int explosionFrame = 0;
-    private int explosionFrameLength = 100; // faster animation for explosion
-    private long lastExplosionFrameTime;
-    private boolean explosionComplete = false;
-    private Context context;
-    
-    public Stone(Context context, int x, int y, int health) {
-        this.context = context;
-        this.x = x;
-        this.y = y;
-        this.health = health;
-        
-        // Set speed based on health (lower health = faster)
-        this.speed = 10 - health + 5;
-        
-        // Initialize bitmap frames for animation
-        bitmapFrames = new Bitmap[FRAME_COUNT];
-        boolean bitmapsLoaded = true;
-        
-        // Load stone bitmaps
-        try {
-            // Load original bitmaps
-            Bitmap originalBitmap0 = BitmapFactory.decodeResource(context.getResources(), R.drawable.rock_00);
-            Bitmap originalBitmap1 = BitmapFactory.decodeResource(context.getResources(), R.drawable.rock_01);
-            Bitmap originalBitmap2 = BitmapFactory.decodeResource(context.getResources(), R.drawable.rock_02);
-            Bitmap originalBitmap3 = BitmapFactory.decodeResource(context.getResources(), R.drawable.rock_03);
-            
-            // Scale down bitmaps by 50%
-            if (originalBitmap0 != null && originalBitmap1 != null && 
-                originalBitmap2 != null && originalBitmap3 != null) {
-                
-                bitmapFrames[0] = scaleBitmap(originalBitmap0, SCALE_FACTOR);
-                bitmapFrames[1] = scaleBitmap(originalBitmap1, SCALE_FACTOR);
-                bitmapFrames[2] = scaleBitmap(originalBitmap2, SCALE_FACTOR);
-                bitmapFrames[3] = scaleBitmap(originalBitmap3, SCALE_FACTOR);
-                
-                // Recycle original bitmaps to free memory
-                originalBitmap0.recycle();
-                originalBitmap1.recycle();
-                originalBitmap2.recycle();
-                originalBitmap3.recycle();
-            } else {
-                bitmapsLoaded = false;
-            }
-            
-            // Check if any bitmap is null
-            for (int i = 0; i < bitmapFrames.length; i++) {
-                if (bitmapFrames[i] == null) {
-                    bitmapsLoaded = false;
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            bitmapsLoaded = false;
-        }
-        
-        // If any bitmap failed to load, create placeholders for all
-        if (!bitmapsLoaded) {
-            for (int i = 0; i < bitmapFrames.length; i++) {
-                bitmapFrames[i] = createRockPlaceholder(i);
-            }
-        }
-        
-        // Initialize animation variables
-        currentFrame = 0;
-        lastFrameChangeTime = System.currentTimeMillis();
-        
-        // Get bitmap dimensions safely
-        int width = getWidth();
-        int height = getHeight();
-        
-        // Initialize collision rectangle
-        collisionRect = new Rect(x, y, x + width, y + height);
-    }
+    private SpriteSet explosionFrames;
     
-    // Helper method to scale bitmap by a factor
-    private Bitmap scaleBitmap(Bitmap originalBitmap, float scaleFactor) {
-        int width = Math.round(originalBitmap.getWidth() * scaleFactor);
-        int height = Math.round(originalBitmap.getHeight() * scaleFactor);
-        
-        return Bitmap.createScaledBitmap(originalBitmap, width, height, true);
+    public Stone(Context context) {
+        // Shared frames from the sprite cache; explosion frames are looked up front
+        // so the first explosion doesn't touch the cache mid-game
+        rockFrames = SpriteCache.getInstance().getSet(context, ROCK_SET,
+                GameWorld.STONE_CLIP.getFrameCount(), Stone::createRockPlaceholder);
+        explosionFrames = SpriteCache.getInstance().getSet(context, EXPLOSION_SET,
+                GameWorld.EXPLOSION_CLIP.getFrameCount(), Stone::createExplosionPlaceholder);
     }
     
     // Create a placeholder rock bitmap
-    private Bitmap createRockPlaceholder(int frameIndex) {
+    private static Bitmap createRockPlaceholder(int frameIndex) {
         Bitmap bitmap = Bitmap.createBitmap(DEFAULT_WIDTH, DEFAULT_HEIGHT, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
         Paint paint = new Paint();
@@ -150,57 +63,8 @@ public class Stone {
         return bitmap;
     }
     
-    // Load explosion animation frames
-    private void loadExplosionFrames() {
-        explosionFrames = new Bitmap[FRAME_COUNT];
-        boolean explosionLoaded = true;
-        
-        try {
-            // Load original explosion bitmaps
-            Bitmap explBitmap0 = BitmapFactory.decodeResource(context.getResources(), R.drawable.explode_rock_00);
-            Bitmap explBitmap1 = BitmapFactory.decodeResource(context.getResources(), R.drawable.explode_rock_01);
-            Bitmap explBitmap2 = BitmapFactory.decodeResource(context.getResources(), R.drawable.explode_rock_02);
-            Bitmap explBitmap3 = BitmapFactory.decodeResource(context.getResources(), R.drawable.explode_rock_03);
-            
-            if (explBitmap0 != null && explBitmap1 != null && 
-                explBitmap2 != null && explBitmap3 != null) {
-                
-                // Scale explosion bitmaps
-                explosionFrames[0] = scaleBitmap(explBitmap0, SCALE_FACTOR);
-                explosionFrames[1] = scaleBitmap(explBitmap1, SCALE_FACTOR);
-                explosionFrames[2] = scaleBitmap(explBitmap2, SCALE_FACTOR);
-                explosionFrames[3] = scaleBitmap(explBitmap3, SCALE_FACTOR);
-                
-                // Recycle original bitmaps
-                explBitmap0.recycle();
-                explBitmap1.recycle();
-                explBitmap2.recycle();
-                explBitmap3.recycle();
-            } else {
-                explosionLoaded = false;
-            }
-            
-            // Check if any bitmap is null
-            for (int i = 0; i < explosionFrames.length; i++) {
-                if (explosionFrames[i] == null) {
-                    explosionLoaded = false;
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            explosionLoaded = false;
-        }
-        
-        // If any explosion bitmap failed to load, create placeholders
-        if (!explosionLoaded) {
-            for (int i = 0; i < explosionFrames.length; i++) {
-                explosionFrames[i] = createExplosionPlaceholder(i);
-            }
-        }
-    }
-    
     // Create a placeholder explosion bitmap
-    private Bitmap createExplosionPlaceholder(int frameIndex) {
+    private static Bitmap createExplosionPlaceholder(int frameIndex) {
         Bitmap bitmap = Bitmap.createBitmap(DEFAULT_WIDTH, DEFAULT_HEIGHT, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
         Paint paint = new Paint();
@@ -237,103 +101,23 @@ public class Stone {
         return bitmap;
     }
     
-    public void update() {
-        if (exploding) {
-            // Update explosion animation
-            if (System.currentTimeMillis() > lastExplosionFrameTime + explosionFrameLength) {
-                explosionFrame++;
-                if (explosionFrame >= FRAME_COUNT) {
-                    explosionComplete = true;
-                } else {
-                    lastExplosionFrameTime = System.currentTimeMillis();
-                }
-            }
-        } else {
-            // Move the stone down
-            y += speed;
-            
-            // Update collision rectangle
-            collisionRect.top = y;
-            collisionRect.bottom = y + getHeight();
-            
-            // Update animation frame
-            if (System.currentTimeMillis() > lastFrameChangeTime + frameLengthInMilliseconds) {
-                currentFrame++;
-                if (currentFrame >= bitmapFrames.length) {
-                    currentFrame = 0;
-                }
-                lastFrameChangeTime = System.currentTimeMillis();
-            }
-        }
+    public SpriteSet getFrames() {
+        return rockFrames;
     }
     
-    public void draw(Canvas canvas) {
-        if (canvas == null) return;
-        
-        if (exploding) {
-            // Draw explosion animation
-            if (!explosionComplete && explosionFrames != null && explosionFrame < explosionFrames.length && explosionFrames[explosionFrame] != null) {
-                canvas.drawBitmap(explosionFrames[explosionFrame], x, y, null);
-            }
-        } else {
-            // Draw regular stone animation
-            if (bitmapFrames != null && currentFrame < bitmapFrames.length && bitmapFrames[currentFrame] != null) {
-                canvas.drawBitmap(bitmapFrames[currentFrame], x, y, null);
-            }
-        }
+    public SpriteSet getExplosionFrames() {
+        return explosionFrames;
     }
     
     public int getWidth() {
-        return (bitmapFrames != null && currentFrame < bitmapFrames.length && bitmapFrames[currentFrame] != null) ? 
-               bitmapFrames[currentFrame].getWidth() : DEFAULT_WIDTH;
+        return rockFrames.getWidth();
     }
     
     public int getHeight() {
-        return (bitmapFrames != null && currentFrame < bitmapFrames.length && bitmapFrames[currentFrame] != null) ? 
-               bitmapFrames[currentFrame].getHeight() : DEFAULT_HEIGHT;
-    }
-    
-    public void decreaseHealth() {
-        health--;
-        if (health <= 0 && !exploding) {
-            // Start explosion animation
-            startExplosion();
-        }
-    }
-    
-    private void startExplosion() {
-        exploding = true;
-        explosionFrame = 0;
-        explosionComplete = false;
-        lastExplosionFrameTime = System.currentTimeMillis();
-        
-        // Load explosion frames if not loaded
-        if (explosionFrames == null) {
-            loadExplosionFrames();
-        }
-    }
-    
-    public int getHealth() {
-        return health;
-    }
-    
-    public int getX() {
-        return x;
-    }
-    
-    public int getY() {
-        return y;
-    }
-    
-    public Rect getCollisionRect() {
-        return collisionRect;
-    }
-    
-    public boolean isExploding() {
-        return exploding;
+        return rockFrames.getHeight();
     }
     
-    public boolean isExplosionComplete() {
-        return explosionComplete;
+    public SpriteSize getSize() {
+        return rockFrames.getSize();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH benchmarks for the GameWorld hot paths, run with ./gradlew :benchmarks:jmh
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmhImplementation(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Allocation rate per operation alongside throughput
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+// Keeps a copy of the results per commit so runs can be diffed
+val commitId = providers.exec {
+    commandLine("git", "rev-parse", "--short", "HEAD")
+}.standardOutput.asText.map { it.trim() }
+
+tasks.register<Copy>("jmhArchive") {
+    description = "Runs the benchmarks and archives the JSON results under the current commit id."
+    group = "benchmark"
+    dependsOn(tasks.named("jmh"))
+    from(jmh.resultsFile)
+    into(layout.buildDirectory.dir("results/jmh/history"))
+    rename { "results-${commitId.get()}.json" }
+}
@@ -0,0 +1,34 @@
+package com.example.spacegame;
+
+import java.util.Random;
+
+// Builds GameWorlds populated with a given number of stones and bullets
+final class BenchmarkWorlds {
+    static final int SCREEN_WIDTH = 1080;
+    static final int SCREEN_HEIGHT = 2400;
+
+    private BenchmarkWorlds() {
+    }
+
+    static GameWorld create(int entityCount) {
+        return new GameWorld(SCREEN_WIDTH, SCREEN_HEIGHT, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 42L,
+                entityCount, entityCount);
+    }
+
+    // Tops both stores up to count entities at random on-screen positions
+    static void fill(GameWorld world, int count, Random random) {
+        EntityStore stones = world.getStones();
+        while (stones.size() < count) {
+            int health = random.nextInt(3) + 1;
+            stones.add(random.nextInt(SCREEN_WIDTH - 100), random.nextInt(SCREEN_HEIGHT / 2),
+                    10 - health + 5, health, world.getTimeMillis());
+        }
+
+        EntityStore bullets = world.getBullets();
+        while (bullets.size() < count) {
+            bullets.add(random.nextInt(SCREEN_WIDTH), SCREEN_HEIGHT / 2 + random.nextInt(SCREEN_HEIGHT / 2),
+                    20, 1, world.getTimeMillis());
+        }
+    }
+}
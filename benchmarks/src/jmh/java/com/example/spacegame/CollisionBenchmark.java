@@ -0,0 +1,45 @@
+package com.example.spacegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// A collision pass on its own, against the same layout every invocation
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private GameWorld world;
+    private int[] savedStoneFlags;
+    private int[] savedStoneHealth;
+    private int[] savedBulletFlags;
+
+    @Setup
+    public void setUp() {
+        world = BenchmarkWorlds.create(entityCount);
+        BenchmarkWorlds.fill(world, entityCount, new Random(7));
+
+        savedStoneFlags = world.getStones().flags.clone();
+        savedStoneHealth = world.getStones().health.clone();
+        savedBulletFlags = world.getBullets().flags.clone();
+    }
+
+    @Benchmark
+    public SpatialGrid checkCollisions() {
+        // Undo the hits from the previous invocation
+        EntityStore stones = world.getStones();
+        EntityStore bullets = world.getBullets();
+        System.arraycopy(savedStoneFlags, 0, stones.flags, 0, stones.size());
+        System.arraycopy(savedStoneHealth, 0, stones.health, 0, stones.size());
+        System.arraycopy(savedBulletFlags, 0, bullets.flags, 0, bullets.size());
+
+        world.checkCollisions(world.getTimeMillis());
+        return world.getCollisionGrid();
+    }
+}
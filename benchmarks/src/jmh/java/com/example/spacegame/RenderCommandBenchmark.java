@@ -0,0 +1,46 @@
+package com.example.spacegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Per-frame draw cost without a Canvas: recording, sorting and batching a snapshot's commands
+@State(Scope.Thread)
+public class RenderCommandBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private RenderSnapshot snapshot;
+    private Starfield starfield;
+    private RenderCommandBuffer commands;
+    private CountingRenderBackend backend;
+
+    @Setup
+    public void setUp() {
+        GameWorld world = BenchmarkWorlds.create(entityCount);
+        Random random = new Random(7);
+        BenchmarkWorlds.fill(world, entityCount, random);
+        world.tick(new GameInput());
+        BenchmarkWorlds.fill(world, entityCount, random);
+
+        snapshot = new RenderSnapshot(world);
+        snapshot.copyFrom(world, 0);
+        starfield = new Starfield(42, BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT, 512 * 1024);
+        commands = new RenderCommandBuffer(2 * entityCount + 256);
+        backend = new CountingRenderBackend();
+    }
+
+    @Benchmark
+    public CountingRenderBackend recordAndSubmit() {
+        commands.clear();
+        SceneRecorder.record(snapshot, 0.5f, starfield, commands);
+        commands.sort();
+        commands.submit(backend);
+        return backend;
+    }
+}
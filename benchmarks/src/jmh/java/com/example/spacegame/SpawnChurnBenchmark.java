@@ -0,0 +1,40 @@
+package com.example.spacegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Spawning a wave of entities, despawning them in two passes, as the game does
+@State(Scope.Thread)
+public class SpawnChurnBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private EntityStore store;
+
+    @Setup
+    public void setUp() {
+        store = new EntityStore(entityCount);
+    }
+
+    @Benchmark
+    public EntityStore spawnAndDespawn() {
+        for (int i = 0; i < entityCount; i++) {
+            store.add(i % BenchmarkWorlds.SCREEN_WIDTH, 0, 12, 2, 0);
+        }
+
+        // Every other entity leaves first, then the rest
+        for (int i = 0; i < store.size(); i += 2) {
+            store.remove(i);
+        }
+        store.compact();
+        for (int i = 0; i < store.size(); i++) {
+            store.remove(i);
+        }
+        store.compact();
+        return store;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.spacegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Full GameWorld.tick() with the stones and bullets topped up to a fixed count
+@State(Scope.Thread)
+public class TickBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private GameWorld world;
+    private GameInput input;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        world = BenchmarkWorlds.create(entityCount);
+        input = new GameInput();
+        random = new Random(7);
+        BenchmarkWorlds.fill(world, entityCount, random);
+    }
+
+    @Benchmark
+    public GameWorld tick() {
+        // Replace entities that left the screen so the count stays steady
+        BenchmarkWorlds.fill(world, entityCount, random);
+        world.tick(input);
+        return world;
+    }
+}
@@ -0,0 +1,41 @@
+plugins {
+    `java-library`
+}
+
+// Android-free game simulation, shared by the app and JVM-only tooling
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// Replays recorded input logs headlessly and checks their final state hashes:
+// ./gradlew :core:replay --args="session.sglog"
+tasks.register<JavaExec>("replay") {
+    group = "verification"
+    description = "Replays recorded input logs at full speed and compares state hashes"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.spacegame.Replayer")
+}
+
+// Build-time tools that need the desktop JDK (javax.imageio); a source set of their
+// own keeps them out of the library the app ships
+val tools by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+val toolsJar = tasks.register<Jar>("toolsJar") {
+    archiveClassifier.set("tools")
+    from(tools.output, sourceSets.main.get().output)
+}
+
+// The sprite atlas packer, run by :app:packSpriteAtlas
+val atlasPacker by configurations.creating {
+    isCanBeConsumed = true
+    isCanBeResolved = false
+}
+artifacts.add(atlasPacker.name, toolsJar)
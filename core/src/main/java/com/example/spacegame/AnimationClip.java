@@ -0,0 +1,117 @@
+package com.example.spacegame;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sprite animation: frame lengths in milliseconds, whether it loops,
+ * and the event fired when a non-looping clip completes.
+ *
+ * Clips are shared constants; an animated entity only stores which clip it
+ * plays and the simulation time it started, and the current frame is derived
+ * from the tick's game time whenever it's needed. Nothing advances per entity
+ * per tick, and frameAt() never allocates.
+ */
+public final class AnimationClip {
+
+    // Events fired when a non-looping clip completes
+    public static final int EVENT_NONE = 0;
+    public static final int EVENT_REMOVE = 1; // remove the entity
+
+    // One frame shown forever, for entities without an animation
+    public static final AnimationClip STILL = loop("still", 1, 1);
+
+    private final String name;
+    private final int[] frameEnds; // end of each frame in ms from the start, ascending
+    private final boolean looping;
+    private final int onComplete;
+
+    private AnimationClip(String name, int[] frameLengths, boolean looping, int onComplete) {
+        if (frameLengths.length == 0) {
+            throw new IllegalArgumentException("Clip " + name + " has no frames");
+        }
+        this.name = name;
+        this.looping = looping;
+        this.onComplete = onComplete;
+        frameEnds = new int[frameLengths.length];
+        int end = 0;
+        for (int i = 0; i < frameLengths.length; i++) {
+            if (frameLengths[i] <= 0) {
+                throw new IllegalArgumentException("Clip " + name + " has a frame of " + frameLengths[i] + " ms");
+            }
+            end += frameLengths[i];
+            frameEnds[i] = end;
+        }
+    }
+
+    // Looping clip of frameCount frames of frameLength ms each
+    public static AnimationClip loop(String name, int frameCount, int frameLength) {
+        return new AnimationClip(name, uniform(frameCount, frameLength), true, EVENT_NONE);
+    }
+
+    // Clip that plays once, holds its last frame and then fires onComplete
+    public static AnimationClip once(String name, int frameCount, int frameLength, int onComplete) {
+        return new AnimationClip(name, uniform(frameCount, frameLength), false, onComplete);
+    }
+
+    // Clip with its own length for every frame
+    public static AnimationClip of(String name, int[] frameLengths, boolean looping, int onComplete) {
+        return new AnimationClip(name, frameLengths.clone(), looping, onComplete);
+    }
+
+    private static int[] uniform(int frameCount, int frameLength) {
+        int[] lengths = new int[frameCount];
+        Arrays.fill(lengths, frameLength);
+        return lengths;
+    }
+
+    // Frame shown elapsedMillis after the clip started
+    public int frameAt(long elapsedMillis) {
+        int duration = getDuration();
+        if (elapsedMillis < 0) {
+            return 0;
+        }
+        if (elapsedMillis >= duration) {
+            if (!looping) {
+                return frameEnds.length - 1;
+            }
+            elapsedMillis %= duration;
+        }
+        // Clips are a handful of frames, a linear scan beats a binary search
+        int frame = 0;
+        while (elapsedMillis >= frameEnds[frame]) {
+            frame++;
+        }
+        return frame;
+    }
+
+    // Whether a non-looping clip has played to the end; looping clips never complete
+    public boolean isComplete(long elapsedMillis) {
+        return !looping && elapsedMillis >= getDuration();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFrameCount() {
+        return frameEnds.length;
+    }
+
+    // Length of one pass through the clip in milliseconds
+    public int getDuration() {
+        return frameEnds[frameEnds.length - 1];
+    }
+
+    public boolean isLooping() {
+        return looping;
+    }
+
+    public int getOnComplete() {
+        return onComplete;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
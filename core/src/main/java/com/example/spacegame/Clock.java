@@ -0,0 +1,8 @@
+package com.example.spacegame;
+
+// Monotonic time source, injectable so the game loop can be driven by a fake clock
+public interface Clock {
+    Clock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
@@ -0,0 +1,26 @@
+package com.example.spacegame;
+
+// RenderBackend that draws nothing and counts what it was asked to draw
+public class CountingRenderBackend implements RenderBackend {
+    private long batchCount;
+    private long spriteCount;
+
+    @Override
+    public void drawBatch(int sprite, int frame, float[] x, float[] y, int count) {
+        batchCount++;
+        spriteCount += count;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getSpriteCount() {
+        return spriteCount;
+    }
+
+    public void reset() {
+        batchCount = 0;
+        spriteCount = 0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.spacegame;
+
+/**
+ * Structure-of-arrays storage for one kind of entity (stones or bullets).
+ *
+ * Live entities occupy indices [0, size()) and are visited with a plain
+ * index loop, which allocates nothing:
+ *
+ *     for (int i = 0; i < store.size(); i++) { ... store.y[i] ... }
+ *
+ * remove() only flags an entity, so indices stay stable for the rest of the
+ * tick; compact() then swap-removes every flagged entity in one pass.
+ *
+ * prevX/prevY hold the positions from before the current simulation step so
+ * rendering can interpolate between steps.
+ *
+ * Animation is a shared AnimationClip and the simulation time it started;
+ * new entities start the store's spawn clip, and frameAt() derives the
+ * current frame from the game time.
+ */
+public class EntityStore {
+
+    // State flags
+    public static final int FLAG_EXPLODING = 1;
+    public static final int FLAG_REMOVED = 1 << 1;
+
+    // Per-entity state, valid for indices [0, size())
+    public final int[] x;
+    public final int[] y;
+    public final int[] prevX;
+    public final int[] prevY;
+    public final int[] speed;
+    public final int[] health;
+    public final int[] flags;
+    public final AnimationClip[] clip;
+    public final long[] clipStart;
+
+    private final int capacity;
+    private final AnimationClip spawnClip;
+    private int size;
+    private int removedCount;
+
+    // Statistics
+    private int highWaterMark;
+    private long exhaustedCount;
+
+    public EntityStore(int capacity) {
+        this(capacity, AnimationClip.STILL);
+    }
+
+    public EntityStore(int capacity, AnimationClip spawnClip) {
+        this.capacity = capacity;
+        this.spawnClip = spawnClip;
+        x = new int[capacity];
+        y = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        speed = new int[capacity];
+        health = new int[capacity];
+        flags = new int[capacity];
+        clip = new AnimationClip[capacity];
+        clipStart = new long[capacity];
+    }
+
+    // Adds an entity playing the spawn clip from time and returns its index, or -1 if the store is full
+    public int add(int x, int y, int speed, int health, long time) {
+        if (size == capacity) {
+            exhaustedCount++;
+            return -1;
+        }
+
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        prevX[i] = x;
+        prevY[i] = y;
+        this.speed[i] = speed;
+        this.health[i] = health;
+        flags[i] = 0;
+        clip[i] = spawnClip;
+        clipStart[i] = time;
+
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+        return i;
+    }
+
+    // Switches an entity to another clip, starting at time
+    public void play(int index, AnimationClip clip, long time) {
+        this.clip[index] = clip;
+        clipStart[index] = time;
+    }
+
+    // Animation frame of an entity at game time now
+    public int frameAt(int index, long now) {
+        return clip[index].frameAt(now - clipStart[index]);
+    }
+
+    // Whether an entity's clip has played to the end at game time now
+    public boolean isClipComplete(int index, long now) {
+        return clip[index].isComplete(now - clipStart[index]);
+    }
+
+    // Called at the start of each simulation step, before anything moves
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    // Flags an entity for removal at the next compact()
+    public void remove(int index) {
+        if ((flags[index] & FLAG_REMOVED) == 0) {
+            flags[index] |= FLAG_REMOVED;
+            removedCount++;
+        }
+    }
+
+    public boolean isRemoved(int index) {
+        return (flags[index] & FLAG_REMOVED) != 0;
+    }
+
+    public boolean hasFlag(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    // Swap-removes all flagged entities; does not preserve order
+    public void compact() {
+        if (removedCount == 0) {
+            return;
+        }
+
+        int i = 0;
+        while (i < size) {
+            if ((flags[i] & FLAG_REMOVED) != 0) {
+                size--;
+                move(size, i);
+            } else {
+                i++;
+            }
+        }
+        removedCount = 0;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        speed[to] = speed[from];
+        health[to] = health[from];
+        flags[to] = flags[from];
+        clip[to] = clip[from];
+        clipStart[to] = clipStart[from];
+    }
+
+    public void clear() {
+        size = 0;
+        removedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getExhaustedCount() {
+        return exhaustedCount;
+    }
+}
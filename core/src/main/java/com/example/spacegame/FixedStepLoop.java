@@ -0,0 +1,85 @@
+package com.example.spacegame;
+
+/**
+ * Fixed-timestep game loop driver.
+ *
+ * Each frame the elapsed clock time is added to an accumulator and the
+ * simulation is advanced in whole steps of stepNanos, so game speed no longer
+ * depends on how long a frame took. The leftover fraction of a step is passed
+ * to render() as an interpolation factor. If the device falls so far behind
+ * that more than maxStepsPerFrame steps are due, the backlog is dropped
+ * instead of spiralling.
+ */
+public class FixedStepLoop {
+
+    public interface Simulation {
+        // Advances the game by exactly one step
+        void update();
+
+        // Draws the game, or hands its state to a renderer; alpha in [0, 1) is how
+        // far we are into the next step
+        void render(float alpha);
+    }
+
+    private final Clock clock;
+    private final long stepNanos;
+    private final int maxStepsPerFrame;
+
+    private long previousTime;
+    private long accumulator;
+
+    // Statistics
+    private long stepCount;
+    private long droppedSteps;
+
+    public FixedStepLoop(Clock clock, long stepNanos, int maxStepsPerFrame) {
+        this.clock = clock;
+        this.stepNanos = stepNanos;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        reset();
+    }
+
+    // Restarts timing, e.g. after a pause, so the gap isn't simulated
+    public void reset() {
+        previousTime = clock.nanoTime();
+        accumulator = 0;
+    }
+
+    // Runs the due steps and one render, returns nanoseconds until the next step is due
+    public long runFrame(Simulation simulation) {
+        long frameStart = clock.nanoTime();
+        accumulator += frameStart - previousTime;
+        previousTime = frameStart;
+
+        int steps = 0;
+        while (accumulator >= stepNanos && steps < maxStepsPerFrame) {
+            simulation.update();
+            accumulator -= stepNanos;
+            steps++;
+        }
+        stepCount += steps;
+
+        // Too far behind to catch up, drop the whole steps still pending
+        if (accumulator >= stepNanos) {
+            droppedSteps += accumulator / stepNanos;
+            accumulator %= stepNanos;
+        }
+
+        simulation.render((float) accumulator / stepNanos);
+
+        long spent = clock.nanoTime() - frameStart;
+        return Math.max(0, stepNanos - accumulator - spent);
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
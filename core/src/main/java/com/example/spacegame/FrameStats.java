@@ -0,0 +1,190 @@
+package com.example.spacegame;
+
+/**
+ * Per-phase frame timing, entity counts and pause estimates for the game loop.
+ *
+ * Everything is recorded into preallocated histograms so recording never
+ * allocates; dump() formats a report and is meant for pause time, not frames.
+ */
+public class FrameStats {
+
+    // Phases, one histogram each
+    public static final int PHASE_UPDATE = 0; // one simulation step, update thread
+    public static final int PHASE_RENDER = 1; // render thread
+    public static final int PHASE_WAIT = 2;   // update thread sleeping until the next step
+    public static final int PHASE_FRAME = 3;  // the whole render frame
+    public static final int PHASE_PARTICLES = 4; // particle update, part of update
+    public static final int PHASE_COUNT = 5;
+
+    private static final String[] PHASE_NAMES = {"update", "render", "wait", "frame", "fx"};
+
+    private final Histogram[] phases = new Histogram[PHASE_COUNT];
+    private final Histogram pauses = new Histogram();
+
+    // Touch latency, from the event to the tick that applied it (update thread)
+    // and to the first frame posted with that tick's state (render thread)
+    private final Histogram inputToTick = new Histogram();
+    private final Histogram inputToFrame = new Histogram();
+
+    // Accelerometer sample age when a tick consumed it, and the delivered rate
+    private final Histogram sensorToTick = new Histogram();
+    private float sensorRate;
+
+    // Entity counts
+    private int stoneCount;
+    private int bulletCount;
+    private int maxStoneCount;
+    private int maxBulletCount;
+    private int particleCount;
+    private int maxParticleCount;
+    private long droppedParticles;
+
+    // Render snapshots the renderer never drew, and frames that redrew an old one
+    private long droppedSnapshots;
+    private long duplicatedSnapshots;
+
+    public FrameStats() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i] = new Histogram();
+        }
+    }
+
+    public void record(int phase, long nanos) {
+        phases[phase].record(nanos);
+    }
+
+    public void recordInputToTick(long nanos) {
+        inputToTick.record(nanos);
+    }
+
+    public void recordInputToFrame(long nanos) {
+        inputToFrame.record(nanos);
+    }
+
+    public void recordEntityCounts(int stones, int bullets) {
+        stoneCount = stones;
+        bulletCount = bullets;
+        maxStoneCount = Math.max(maxStoneCount, stones);
+        maxBulletCount = Math.max(maxBulletCount, bullets);
+    }
+
+    // Live particles and the particles dropped so far for the budget
+    public void recordParticles(int particles, long dropped) {
+        particleCount = particles;
+        maxParticleCount = Math.max(maxParticleCount, particles);
+        droppedParticles = dropped;
+    }
+
+    public void recordSnapshotCounts(long dropped, long duplicated) {
+        droppedSnapshots = dropped;
+        duplicatedSnapshots = duplicated;
+    }
+
+    // Refreshes the pause estimate from a running detector
+    public void updatePauses(PauseDetector detector) {
+        detector.copyTo(pauses);
+    }
+
+    // Refreshes the sensor latency and rate from the accelerometer pipeline
+    public void updateSensor(SensorPipeline sensor) {
+        sensor.copyLatencyTo(sensorToTick);
+        sensorRate = sensor.getSampleRate();
+    }
+
+    public Histogram getPhase(int phase) {
+        return phases[phase];
+    }
+
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    public Histogram getPauses() {
+        return pauses;
+    }
+
+    public Histogram getInputToTick() {
+        return inputToTick;
+    }
+
+    public Histogram getInputToFrame() {
+        return inputToFrame;
+    }
+
+    public Histogram getSensorToTick() {
+        return sensorToTick;
+    }
+
+    public float getSensorRate() {
+        return sensorRate;
+    }
+
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    public int getBulletCount() {
+        return bulletCount;
+    }
+
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    public long getDroppedParticles() {
+        return droppedParticles;
+    }
+
+    public long getDroppedSnapshots() {
+        return droppedSnapshots;
+    }
+
+    public long getDuplicatedSnapshots() {
+        return duplicatedSnapshots;
+    }
+
+    public void reset() {
+        for (Histogram phase : phases) {
+            phase.reset();
+        }
+        pauses.reset();
+        inputToTick.reset();
+        inputToFrame.reset();
+        sensorToTick.reset();
+        sensorRate = 0f;
+        maxStoneCount = 0;
+        maxBulletCount = 0;
+        maxParticleCount = 0;
+        droppedSnapshots = 0;
+        duplicatedSnapshots = 0;
+    }
+
+    // Writes a human-readable report, times in microseconds
+    public void dump(StringBuilder out) {
+        out.append("phase count p50 p95 p99 max (us)\n");
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            appendRow(out, PHASE_NAMES[i], phases[i]);
+        }
+        appendRow(out, "gc/pause", pauses);
+        appendRow(out, "input>tick", inputToTick);
+        appendRow(out, "input>frame", inputToFrame);
+        appendRow(out, "sensor>tick", sensorToTick);
+        out.append("sensor rate ").append(Math.round(sensorRate)).append(" Hz\n");
+        out.append("stones ").append(stoneCount).append(" (max ").append(maxStoneCount).append(")")
+                .append(", bullets ").append(bulletCount).append(" (max ").append(maxBulletCount).append(")\n");
+        out.append("particles ").append(particleCount).append(" (max ").append(maxParticleCount)
+                .append("), dropped ").append(droppedParticles).append('\n');
+        out.append("snapshots dropped ").append(droppedSnapshots)
+                .append(", duplicated ").append(duplicatedSnapshots).append('\n');
+    }
+
+    private static void appendRow(StringBuilder out, String name, Histogram histogram) {
+        out.append(name)
+                .append(' ').append(histogram.getCount())
+                .append(' ').append(histogram.getValueAtPercentile(50) / 1000)
+                .append(' ').append(histogram.getValueAtPercentile(95) / 1000)
+                .append(' ').append(histogram.getValueAtPercentile(99) / 1000)
+                .append(' ').append(histogram.getMax() / 1000)
+                .append('\n');
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.spacegame;
+
+// Player input for one simulation tick, reused from tick to tick
+public class GameInput {
+    public static final int NO_ENTITY_LIMIT = Integer.MAX_VALUE;
+
+    // Latest accelerometer x-axis reading
+    private float acceleration;
+    // Taps since the previous tick
+    private int shots;
+    // Tap on the game over screen
+    private boolean restart;
+    // Stones stop spawning while the world holds this many stones and bullets.
+    // Set by the quality governor; unlike the fields above it stays until changed
+    private int entityLimit = NO_ENTITY_LIMIT;
+
+    public void set(float acceleration, int shots, boolean restart) {
+        this.acceleration = acceleration;
+        this.shots = shots;
+        this.restart = restart;
+    }
+
+    public void setEntityLimit(int entityLimit) {
+        this.entityLimit = entityLimit;
+    }
+
+    public float getAcceleration() {
+        return acceleration;
+    }
+
+    public int getShots() {
+        return shots;
+    }
+
+    public boolean isRestart() {
+        return restart;
+    }
+
+    public int getEntityLimit() {
+        return entityLimit;
+    }
+}
@@ -0,0 +1,606 @@
+package com.example.spacegame;
+
+import java.util.Random;
+
+/**
+ * Headless game simulation: player movement, stone spawning, bullets,
+ * collisions, lives and the particles of explosions and the engine trail.
+ * Stones spawn as a WaveSchedule says, CLASSIC unless another one is given.
+ *
+ * Has no Android dependencies so it can be ticked from a plain JVM. One call
+ * to tick() is one fixed simulation step of STEP_NANOS; all timing, including
+ * sprite animation, is measured in simulation time rather than the wall
+ * clock. Rendering code reads the state through the getters and entity stores
+ * between ticks.
+ */
+public class GameWorld {
+
+    // Notified of gameplay events, e.g. to play sounds
+    public interface Listener {
+        void onShoot();
+
+        void onExplosion(float volume);
+
+        void onGameOver();
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+        @Override
+        public void onShoot() {
+        }
+
+        @Override
+        public void onExplosion(float volume) {
+        }
+
+        @Override
+        public void onGameOver() {
+        }
+    };
+
+    // Simulation rate, 60 steps per second
+    public static final long STEP_NANOS = 1_000_000_000L / 60;
+
+    // Stored in input logs; bump it whenever a change makes the same input
+    // play out differently, so older logs are rejected instead of mismatching
+    public static final int RULES_VERSION = 2;
+
+    // Default entity store capacities
+    public static final int STONE_CAPACITY = 1024;
+    public static final int BULLET_CAPACITY = 1024;
+    public static final int PARTICLE_CAPACITY = 2048;
+
+    // Animations, frame lengths in milliseconds; frame counts match the sprite sets
+    public static final AnimationClip PLAYER_CLIP = AnimationClip.loop("player", 3, 150);
+    public static final AnimationClip STONE_CLIP = AnimationClip.loop("stone", 4, 200);
+    public static final AnimationClip BULLET_CLIP = AnimationClip.loop("bullet", 4, 50); // faster than stones
+    // Faster than stones, and the stone is gone once it has played
+    public static final AnimationClip EXPLOSION_CLIP = AnimationClip.once("explosion", 4, 100,
+            AnimationClip.EVENT_REMOVE);
+
+    // Gameplay
+    private static final int BULLET_SPEED = 20;
+    private static final int PLAYER_SPEED = 10;
+    private static final int PLAYER_LIVES = 3;
+    private static final int SCORE_PER_STONE = 10;
+
+    // Screen and sprite dimensions
+    private final int screenWidth;
+    private final int screenHeight;
+    private final SpriteSize playerSize;
+    private final SpriteSize stoneSize;
+    private final SpriteSize bulletSize;
+
+    private final long seed;
+    private final Random random;
+    private Listener listener = NO_LISTENER;
+    private final WaveScheduler waves;
+    private boolean invulnerable;
+
+    // Player state
+    private int playerX;
+    private int previousPlayerX;
+    private final int playerY;
+    private int lives;
+    private int score;
+
+    // Stones and bullets
+    private final EntityStore stones;
+    private final EntityStore bullets;
+
+    // Explosion bursts and the engine trail, on their own random sequence
+    private final ParticleSystem particles;
+
+    // Collision broadphase
+    private final SpatialGrid collisionGrid;
+    private final int[] collisionCandidates;
+    private int stoneTravel; // furthest a collidable stone moved this tick
+    private int hitStone; // stone found by findBulletHit()
+
+    // Hits found this tick: packed sort keys, and the bullet (-1 for the
+    // player) and stone of each event
+    private final long[] collisionEvents;
+    private final int[] eventBullet;
+    private final int[] eventStone;
+    private int collisionEventCount;
+
+    // Game state
+    private long tickCount;
+    private boolean gameOver;
+
+    public GameWorld(int screenWidth, int screenHeight, SpriteSize playerSize,
+                     SpriteSize stoneSize, SpriteSize bulletSize, long seed) {
+        this(screenWidth, screenHeight, playerSize, stoneSize, bulletSize, seed,
+                STONE_CAPACITY, BULLET_CAPACITY);
+    }
+
+    public GameWorld(int screenWidth, int screenHeight, SpriteSize playerSize,
+                     SpriteSize stoneSize, SpriteSize bulletSize, long seed,
+                     int stoneCapacity, int bulletCapacity) {
+        this(screenWidth, screenHeight, playerSize, stoneSize, bulletSize, seed,
+                stoneCapacity, bulletCapacity, WaveSchedule.CLASSIC);
+    }
+
+    public GameWorld(int screenWidth, int screenHeight, SpriteSize playerSize,
+                     SpriteSize stoneSize, SpriteSize bulletSize, long seed,
+                     int stoneCapacity, int bulletCapacity, WaveSchedule waveSchedule) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.playerSize = playerSize;
+        this.stoneSize = stoneSize;
+        this.bulletSize = bulletSize;
+        this.seed = seed;
+        random = new Random(seed);
+        waves = new WaveScheduler(waveSchedule);
+        waves.reset(0);
+
+        // Set initial position (center bottom of screen)
+        playerX = screenWidth / 2 - playerSize.getWidth() / 2;
+        previousPlayerX = playerX;
+        playerY = screenHeight - playerSize.getHeight() - 50;
+        lives = PLAYER_LIVES;
+
+        stones = new EntityStore(stoneCapacity, STONE_CLIP);
+        bullets = new EntityStore(bulletCapacity, BULLET_CLIP);
+        particles = new ParticleSystem(PARTICLE_CAPACITY, ~seed);
+
+        // Cells must be at least as large as a stone for the grid queries to be exact
+        int cellSize = Math.max(stoneSize.getWidth(), stoneSize.getHeight());
+        collisionGrid = new SpatialGrid(screenWidth, screenHeight, cellSize, stoneCapacity);
+        collisionCandidates = new int[stoneCapacity];
+
+        // At most one event per bullet plus one per stone reaching the player
+        collisionEvents = new long[bulletCapacity + stoneCapacity];
+        eventBullet = new int[collisionEvents.length];
+        eventStone = new int[collisionEvents.length];
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    // For stress runs: stones still explode on the player or the bottom edge but
+    // cost no lives, so the game never ends. Not part of the recorded input,
+    // so invulnerable sessions can't be replayed
+    public void setInvulnerable(boolean invulnerable) {
+        this.invulnerable = invulnerable;
+    }
+
+    // Advances the world by one simulation step
+    public void tick(GameInput input) {
+        tickCount++;
+        long now = getTimeMillis();
+
+        // Keep the pre-step positions for render interpolation
+        previousPlayerX = playerX;
+        bullets.savePreviousPositions();
+        stones.savePreviousPositions();
+        particles.update();
+
+        if (input.isRestart()) {
+            restart();
+        } else if (!gameOver) {
+            for (int i = 0; i < input.getShots(); i++) {
+                fireBullet(now);
+            }
+        }
+
+        // Update player position based on accelerometer data
+        updatePlayer(input.getAcceleration());
+
+        updateBullets();
+        updateStones(now);
+
+        // Spawn the stones the current wave asks for, if any
+        int spawnCount = waves.update(now, random);
+        for (int i = 0; i < spawnCount; i++) {
+            spawnStone(now, input.getEntityLimit());
+        }
+
+        checkCollisions(now);
+
+        // Drop entities removed during this tick
+        bullets.compact();
+        stones.compact();
+
+        // Check game over condition
+        if (lives <= 0 && !gameOver) {
+            gameOver = true;
+            listener.onGameOver();
+        }
+    }
+
+    private void restart() {
+        gameOver = false;
+        lives = PLAYER_LIVES;
+        score = 0;
+        stones.clear();
+        bullets.clear();
+        particles.clear();
+        waves.reset(getTimeMillis());
+    }
+
+    private void updatePlayer(float acceleration) {
+        // Negative acceleration moves right, positive moves left (based on phone orientation)
+        playerX += -acceleration * PLAYER_SPEED;
+
+        // Keep player within screen bounds
+        if (playerX < 0) {
+            playerX = 0;
+        } else if (playerX > screenWidth - playerSize.getWidth()) {
+            playerX = screenWidth - playerSize.getWidth();
+        }
+
+        // Engine exhaust from the bottom center of the ship
+        if (!gameOver) {
+            particles.emit(ParticleSystem.EMITTER_ENGINE, playerX + playerSize.getWidth() / 2f,
+                    playerY + playerSize.getHeight());
+        }
+    }
+
+    private void fireBullet(long now) {
+        int x = playerX + playerSize.getWidth() / 2;
+        if (bullets.add(x, playerY, BULLET_SPEED, 1, now) < 0) {
+            // Store full, too many bullets on screen
+            return;
+        }
+        listener.onShoot();
+    }
+
+    private void updateBullets() {
+        for (int i = 0; i < bullets.size(); i++) {
+            // Move the bullet up
+            bullets.y[i] -= bullets.speed[i];
+
+            // Remove bullets that are off-screen
+            if (bullets.y[i] < 0) {
+                bullets.remove(i);
+            }
+        }
+    }
+
+    private void updateStones(long now) {
+        for (int i = 0; i < stones.size(); i++) {
+            if (stones.isClipComplete(i, now)) {
+                onClipComplete(stones, i);
+                if (stones.isRemoved(i)) {
+                    continue;
+                }
+            }
+            if (!stones.hasFlag(i, EntityStore.FLAG_EXPLODING)) {
+                // Move the stone down
+                stones.y[i] += stones.speed[i];
+            }
+
+            // Handle stones that are off-screen
+            if (stones.y[i] > screenHeight) {
+                // Player loses a life if a stone passes the bottom without being destroyed
+                if (!stones.hasFlag(i, EntityStore.FLAG_EXPLODING)) {
+                    loseLife();
+                    listener.onExplosion(1.0f);
+
+                    // Force the stone to explode as visual feedback; it is
+                    // removed once its explosion animation completes
+                    stones.health[i] = 0;
+                    startExplosion(i, now);
+                } else {
+                    stones.remove(i);
+                }
+            }
+        }
+    }
+
+    private static void onClipComplete(EntityStore store, int i) {
+        if (store.clip[i].getOnComplete() == AnimationClip.EVENT_REMOVE) {
+            store.remove(i);
+        }
+    }
+
+    private void spawnStone(long now, int entityLimit) {
+        // Position the stone randomly along the X-axis at the top of the screen
+        int x = random.nextInt(screenWidth - 100);
+        int health = waves.pickHealth(random);
+        int speed = waves.pickSpeed(health, random);
+        // Spawn is skipped if the store is full or the entity limit is reached; the
+        // random numbers are drawn anyway so later stones don't depend on the limit
+        if (stones.size() + bullets.size() >= entityLimit) {
+            return;
+        }
+        stones.add(x, 0, speed, health, now);
+    }
+
+    // Package-private so benchmarks can run a collision pass on its own.
+    //
+    // Every pair is tested along the paths both entities moved this tick, not
+    // just where they ended up, and the hits are applied in the order they
+    // happened: a bullet is stopped by the first stone it reaches, and one
+    // that reaches a stone only after another bullet destroyed it flies on to
+    // whatever is behind.
+    void checkCollisions(long now) {
+        // Rebuild the broadphase with the stones that can still be hit, filed by
+        // their end positions. Queries grow by the furthest any of them moved so
+        // they also find stones that were only in range earlier in the tick
+        collisionGrid.clear();
+        int travel = 0;
+        for (int s = 0; s < stones.size(); s++) {
+            if (!stones.isRemoved(s) && !stones.hasFlag(s, EntityStore.FLAG_EXPLODING)) {
+                collisionGrid.insert(s, stones.x[s], stones.y[s]);
+                travel = Math.max(travel, Math.abs(stones.x[s] - stones.prevX[s]));
+                travel = Math.max(travel, Math.abs(stones.y[s] - stones.prevY[s]));
+            }
+        }
+        collisionGrid.build();
+        stoneTravel = travel;
+
+        // Each bullet's first hit
+        collisionEventCount = 0;
+        for (int b = 0; b < bullets.size(); b++) {
+            if (bullets.isRemoved(b)) continue;
+
+            float time = findBulletHit(b, 0f);
+            if (time != SweptAabb.NO_HIT) {
+                addCollisionEvent(time, b, hitStone);
+            }
+        }
+
+        // Stones reaching the player
+        int playerWidth = playerSize.getWidth();
+        int playerHeight = playerSize.getHeight();
+        int playerMove = playerX - previousPlayerX;
+        int left = Math.min(playerX, previousPlayerX);
+        int candidateCount = collisionGrid.query(left - travel, playerY - travel,
+                left + Math.abs(playerMove) + playerWidth + travel, playerY + playerHeight + travel,
+                collisionCandidates);
+        for (int c = 0; c < candidateCount; c++) {
+            int s = collisionCandidates[c];
+            float time = SweptAabb.timeOfImpact(previousPlayerX, playerY, playerWidth, playerHeight,
+                    playerMove, 0,
+                    stones.prevX[s], stones.prevY[s], stoneSize.getWidth(), stoneSize.getHeight(),
+                    stones.x[s] - stones.prevX[s], stones.y[s] - stones.prevY[s]);
+            if (time != SweptAabb.NO_HIT) {
+                addCollisionEvent(time, -1, s);
+            }
+        }
+
+        // Apply the hits in time order
+        LongSort.sort(collisionEvents, 0, collisionEventCount - 1);
+        int e = 0;
+        while (e < collisionEventCount) {
+            int event = (int) collisionEvents[e];
+            int b = eventBullet[event];
+            int s = eventStone[event];
+
+            // Skip stones that started exploding earlier in this tick
+            if (stones.hasFlag(s, EntityStore.FLAG_EXPLODING)) {
+                if (b >= 0) {
+                    float time = findBulletHit(b, eventTime(collisionEvents[e]));
+                    if (time != SweptAabb.NO_HIT) {
+                        // Look at this slot again, it now holds the next event in order
+                        rescheduleCollisionEvent(e, time, hitStone);
+                        continue;
+                    }
+                }
+                e++;
+                continue;
+            }
+
+            collisionGrid.countHit();
+            if (b >= 0) {
+                // Bullet hit stone
+                bullets.remove(b);
+                if (decreaseHealth(s, now)) {
+                    score += SCORE_PER_STONE;
+                    listener.onExplosion(0.7f);
+                }
+            } else {
+                // Stone hit player
+                loseLife();
+                decreaseHealth(s, now); // This will trigger the explosion animation
+                listener.onExplosion(1.0f);
+            }
+            e++;
+        }
+    }
+
+    // Earliest time of impact, no sooner than after, of bullet b on a stone
+    // that isn't exploding, or NO_HIT. The stone is left in hitStone
+    private float findBulletHit(int b, float after) {
+        int bulletWidth = bulletSize.getWidth();
+        int bulletHeight = bulletSize.getHeight();
+        int dx = bullets.x[b] - bullets.prevX[b];
+        int dy = bullets.y[b] - bullets.prevY[b];
+        int left = Math.min(bullets.x[b], bullets.prevX[b]);
+        int top = Math.min(bullets.y[b], bullets.prevY[b]);
+        int candidateCount = collisionGrid.query(left - stoneTravel, top - stoneTravel,
+                left + Math.abs(dx) + bulletWidth + stoneTravel,
+                top + Math.abs(dy) + bulletHeight + stoneTravel, collisionCandidates);
+
+        float first = SweptAabb.NO_HIT;
+        for (int c = 0; c < candidateCount; c++) {
+            int s = collisionCandidates[c];
+            if (stones.hasFlag(s, EntityStore.FLAG_EXPLODING)) continue;
+
+            float time = SweptAabb.timeOfImpact(bullets.prevX[b], bullets.prevY[b],
+                    bulletWidth, bulletHeight, dx, dy,
+                    stones.prevX[s], stones.prevY[s], stoneSize.getWidth(), stoneSize.getHeight(),
+                    stones.x[s] - stones.prevX[s], stones.y[s] - stones.prevY[s]);
+            if (time != SweptAabb.NO_HIT && time >= after
+                    && (first == SweptAabb.NO_HIT || time < first || time == first && s < hitStone)) {
+                first = time;
+                hitStone = s;
+            }
+        }
+        return first;
+    }
+
+    // Events are sorted by packed keys: the time's bits, which order like the
+    // time for non-negative floats, then the event index to keep keys unique
+    private void addCollisionEvent(float time, int b, int s) {
+        if (collisionEventCount == collisionEvents.length) {
+            return;
+        }
+        int event = collisionEventCount++;
+        eventBullet[event] = b;
+        eventStone[event] = s;
+        collisionEvents[event] = eventKey(time, event);
+    }
+
+    // Gives the bullet event at position e a later time and stone, and moves it
+    // forward to keep the events ordered
+    private void rescheduleCollisionEvent(int e, float time, int s) {
+        int event = (int) collisionEvents[e];
+        eventStone[event] = s;
+        long key = eventKey(time, event);
+        while (e + 1 < collisionEventCount && collisionEvents[e + 1] < key) {
+            collisionEvents[e] = collisionEvents[e + 1];
+            e++;
+        }
+        collisionEvents[e] = key;
+    }
+
+    private static long eventKey(float time, int event) {
+        return (long) Float.floatToIntBits(time) << 32 | event;
+    }
+
+    private static float eventTime(long key) {
+        return Float.intBitsToFloat((int) (key >>> 32));
+    }
+
+    private void loseLife() {
+        if (!invulnerable) {
+            lives--;
+        }
+    }
+
+    // Returns true if the stone was destroyed
+    private boolean decreaseHealth(int s, long now) {
+        stones.health[s]--;
+        if (stones.health[s] <= 0 && !stones.hasFlag(s, EntityStore.FLAG_EXPLODING)) {
+            startExplosion(s, now);
+            return true;
+        }
+        return false;
+    }
+
+    private void startExplosion(int s, long now) {
+        stones.flags[s] |= EntityStore.FLAG_EXPLODING;
+        stones.play(s, EXPLOSION_CLIP, now);
+        particles.emit(ParticleSystem.EMITTER_EXPLOSION, stones.x[s] + stoneSize.getWidth() / 2f,
+                stones.y[s] + stoneSize.getHeight() / 2f);
+    }
+
+    // Hash of the whole simulation state, used to check that replays are deterministic
+    public long stateHash() {
+        long hash = 17;
+        hash = 31 * hash + tickCount;
+        hash = 31 * hash + waves.hash();
+        hash = 31 * hash + playerX;
+        hash = 31 * hash + lives;
+        hash = 31 * hash + score;
+        hash = 31 * hash + (gameOver ? 1 : 0);
+        hash = 31 * hash + hashStore(stones);
+        hash = 31 * hash + hashStore(bullets);
+        return hash;
+    }
+
+    private static long hashStore(EntityStore store) {
+        long hash = store.size();
+        for (int i = 0; i < store.size(); i++) {
+            hash = 31 * hash + store.x[i];
+            hash = 31 * hash + store.y[i];
+            hash = 31 * hash + store.speed[i];
+            hash = 31 * hash + store.health[i];
+            hash = 31 * hash + store.flags[i];
+            hash = 31 * hash + store.clipStart[i];
+        }
+        return hash;
+    }
+
+    // Simulation time in milliseconds
+    public long getTimeMillis() {
+        return tickCount * STEP_NANOS / 1_000_000;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public WaveSchedule getWaveSchedule() {
+        return waves.getSchedule();
+    }
+
+    // Index of the current wave in the schedule
+    public int getWave() {
+        return waves.getWave();
+    }
+
+    public SpriteSize getPlayerSize() {
+        return playerSize;
+    }
+
+    public SpriteSize getStoneSize() {
+        return stoneSize;
+    }
+
+    public SpriteSize getBulletSize() {
+        return bulletSize;
+    }
+
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    public int getPreviousPlayerX() {
+        return previousPlayerX;
+    }
+
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    // The ship's clip runs from the start of the game
+    public int getPlayerFrame() {
+        return PLAYER_CLIP.frameAt(getTimeMillis());
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    // Points for stones shot down since the last restart
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public EntityStore getStones() {
+        return stones;
+    }
+
+    public EntityStore getBullets() {
+        return bullets;
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    public SpatialGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+}
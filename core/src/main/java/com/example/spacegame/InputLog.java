@@ -0,0 +1,268 @@
+package com.example.spacegame;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A recorded game session: the GameWorld.RULES_VERSION it was played with,
+ * everything needed to rebuild the GameWorld (seed, screen and sprite sizes,
+ * capacities, wave schedule), the GameInput of every tick and the world's
+ * state hash after the last tick. A log recorded with other rules can't be
+ * replayed to the same state, so reading one fails with an IOException that
+ * says so.
+ *
+ * Ticks are stored compactly, one byte per tick plus four bytes whenever the
+ * accelerometer reading changed and a varint whenever the entity limit did:
+ *
+ *     flags    bit 7 acceleration follows, bit 6 restart, bit 5 entity limit
+ *              follows, bits 0-4 shots (31 means a varint with the remaining
+ *              shots follows)
+ *     varint   entity limit, only if bit 5 is set
+ *     float    acceleration, only if bit 7 is set
+ */
+public class InputLog {
+    private static final int MAGIC = 0x53474C34; // "SGL4"
+    // Logs from before rules versions: "SGL1" to "SGL3"
+    private static final int MAGIC_OLDEST = 0x53474C31;
+
+    private static final int FLAG_ACCELERATION = 0x80;
+    private static final int FLAG_RESTART = 0x40;
+    private static final int FLAG_ENTITY_LIMIT = 0x20;
+    private static final int SHOTS_MASK = 0x1f;
+
+    private final int screenWidth;
+    private final int screenHeight;
+    private final SpriteSize playerSize;
+    private final SpriteSize stoneSize;
+    private final SpriteSize bulletSize;
+    private final int stoneCapacity;
+    private final int bulletCapacity;
+    private final long seed;
+    private final WaveSchedule waveSchedule;
+    private final int tickCount;
+    private final byte[] ticks;
+    private final int ticksLength;
+    private final long finalStateHash;
+
+    InputLog(int screenWidth, int screenHeight, SpriteSize playerSize, SpriteSize stoneSize,
+             SpriteSize bulletSize, int stoneCapacity, int bulletCapacity, long seed,
+             WaveSchedule waveSchedule, int tickCount, byte[] ticks, int ticksLength,
+             long finalStateHash) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.playerSize = playerSize;
+        this.stoneSize = stoneSize;
+        this.bulletSize = bulletSize;
+        this.stoneCapacity = stoneCapacity;
+        this.bulletCapacity = bulletCapacity;
+        this.seed = seed;
+        this.waveSchedule = waveSchedule;
+        this.tickCount = tickCount;
+        this.ticks = ticks;
+        this.ticksLength = ticksLength;
+        this.finalStateHash = finalStateHash;
+    }
+
+    // A fresh world in the same initial state as the recorded one
+    public GameWorld createWorld() {
+        return new GameWorld(screenWidth, screenHeight, playerSize, stoneSize, bulletSize,
+                seed, stoneCapacity, bulletCapacity, waveSchedule);
+    }
+
+    public Reader reader() {
+        return new Reader();
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public WaveSchedule getWaveSchedule() {
+        return waveSchedule;
+    }
+
+    public long getFinalStateHash() {
+        return finalStateHash;
+    }
+
+    // Always writes the current format
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(GameWorld.RULES_VERSION);
+        data.writeInt(screenWidth);
+        data.writeInt(screenHeight);
+        writeSize(data, playerSize);
+        writeSize(data, stoneSize);
+        writeSize(data, bulletSize);
+        data.writeInt(stoneCapacity);
+        data.writeInt(bulletCapacity);
+        data.writeLong(seed);
+        byte[] schedule = waveSchedule.getSource().getBytes(StandardCharsets.UTF_8);
+        data.writeInt(schedule.length);
+        data.write(schedule);
+        data.writeInt(tickCount);
+        data.writeInt(ticksLength);
+        data.write(ticks, 0, ticksLength);
+        data.writeLong(finalStateHash);
+        data.flush();
+    }
+
+    public static InputLog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int magic = data.readInt();
+        if (magic >= MAGIC_OLDEST && magic < MAGIC) {
+            throw new IOException("Input log was recorded by an older simulation and can't be replayed");
+        }
+        if (magic != MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int rulesVersion = data.readInt();
+        if (rulesVersion != GameWorld.RULES_VERSION) {
+            throw new IOException("Input log was recorded by an "
+                    + (rulesVersion < GameWorld.RULES_VERSION ? "older" : "newer")
+                    + " simulation (rules version " + rulesVersion + ", this is "
+                    + GameWorld.RULES_VERSION + ") and can't be replayed");
+        }
+        int screenWidth = data.readInt();
+        int screenHeight = data.readInt();
+        SpriteSize playerSize = readSize(data);
+        SpriteSize stoneSize = readSize(data);
+        SpriteSize bulletSize = readSize(data);
+        int stoneCapacity = data.readInt();
+        int bulletCapacity = data.readInt();
+        long seed = data.readLong();
+        byte[] schedule = new byte[data.readInt()];
+        data.readFully(schedule);
+        WaveSchedule waveSchedule;
+        try {
+            waveSchedule = WaveSchedule.parse(new String(schedule, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad wave schedule in input log", e);
+        }
+        int tickCount = data.readInt();
+        byte[] ticks = new byte[data.readInt()];
+        data.readFully(ticks);
+        long finalStateHash = data.readLong();
+        return new InputLog(screenWidth, screenHeight, playerSize, stoneSize, bulletSize,
+                stoneCapacity, bulletCapacity, seed, waveSchedule, tickCount, ticks, ticks.length,
+                finalStateHash);
+    }
+
+    private static void writeSize(DataOutputStream data, SpriteSize size) throws IOException {
+        data.writeInt(size.getWidth());
+        data.writeInt(size.getHeight());
+    }
+
+    private static SpriteSize readSize(DataInputStream data) throws IOException {
+        int width = data.readInt();
+        return new SpriteSize(width, data.readInt());
+    }
+
+    // Appends one tick to buffer at position, returns the new position
+    static int encodeTick(GameInput input, float previousAcceleration, int previousEntityLimit,
+                          byte[] buffer, int position) {
+        boolean accelerationChanged =
+                Float.floatToIntBits(input.getAcceleration()) != Float.floatToIntBits(previousAcceleration);
+        boolean entityLimitChanged = input.getEntityLimit() != previousEntityLimit;
+        int shots = input.getShots();
+
+        int flags = Math.min(shots, SHOTS_MASK);
+        if (accelerationChanged) {
+            flags |= FLAG_ACCELERATION;
+        }
+        if (input.isRestart()) {
+            flags |= FLAG_RESTART;
+        }
+        if (entityLimitChanged) {
+            flags |= FLAG_ENTITY_LIMIT;
+        }
+        buffer[position++] = (byte) flags;
+
+        if (shots >= SHOTS_MASK) {
+            position = encodeVarint(shots - SHOTS_MASK, buffer, position);
+        }
+        if (entityLimitChanged) {
+            position = encodeVarint(input.getEntityLimit(), buffer, position);
+        }
+
+        if (accelerationChanged) {
+            int bits = Float.floatToIntBits(input.getAcceleration());
+            buffer[position++] = (byte) (bits >>> 24);
+            buffer[position++] = (byte) (bits >>> 16);
+            buffer[position++] = (byte) (bits >>> 8);
+            buffer[position++] = (byte) bits;
+        }
+        return position;
+    }
+
+    // Unsigned, 7 bits per byte, low bits first
+    private static int encodeVarint(int value, byte[] buffer, int position) {
+        while ((value & ~0x7f) != 0) {
+            buffer[position++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    // Largest number of bytes encodeTick() can append
+    static final int MAX_TICK_BYTES = 1 + 5 + 5 + 4;
+
+    // Decodes ticks one at a time into a reused GameInput
+    public class Reader {
+        private int position;
+        private int ticksRead;
+        private float acceleration;
+        private int entityLimit = GameInput.NO_ENTITY_LIMIT;
+
+        public boolean next(GameInput input) {
+            if (ticksRead == tickCount) {
+                return false;
+            }
+
+            int flags = ticks[position++] & 0xff;
+            int shots = flags & SHOTS_MASK;
+            if (shots == SHOTS_MASK) {
+                shots += decodeVarint();
+            }
+            if ((flags & FLAG_ENTITY_LIMIT) != 0) {
+                entityLimit = decodeVarint();
+            }
+
+            if ((flags & FLAG_ACCELERATION) != 0) {
+                int bits = (ticks[position] & 0xff) << 24
+                        | (ticks[position + 1] & 0xff) << 16
+                        | (ticks[position + 2] & 0xff) << 8
+                        | (ticks[position + 3] & 0xff);
+                position += 4;
+                acceleration = Float.intBitsToFloat(bits);
+            }
+
+            input.set(acceleration, shots, (flags & FLAG_RESTART) != 0);
+            input.setEntityLimit(entityLimit);
+            ticksRead++;
+            return true;
+        }
+
+        private int decodeVarint() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = ticks[position++] & 0xff;
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.spacegame;
+
+/**
+ * Records the seed, wave schedule and every tick's GameInput of a GameWorld
+ * into an InputLog.
+ *
+ * Must be created before the world's first tick. Recording appends to a
+ * growable byte buffer, so it only allocates when the buffer doubles.
+ */
+public class InputRecorder {
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final GameWorld world;
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int length;
+    private int tickCount;
+    private float previousAcceleration;
+    private int previousEntityLimit = GameInput.NO_ENTITY_LIMIT;
+
+    public InputRecorder(GameWorld world) {
+        if (world.getTickCount() != 0) {
+            throw new IllegalStateException("Recording must start before the first tick");
+        }
+        this.world = world;
+    }
+
+    // Call with the input of every tick, before it's passed to GameWorld.tick()
+    public void record(GameInput input) {
+        if (length + InputLog.MAX_TICK_BYTES > buffer.length) {
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+        length = InputLog.encodeTick(input, previousAcceleration, previousEntityLimit, buffer, length);
+        previousAcceleration = input.getAcceleration();
+        previousEntityLimit = input.getEntityLimit();
+        tickCount++;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public int getByteCount() {
+        return length;
+    }
+
+    // Snapshot of the session so far, closed with the world's current state hash
+    public InputLog toLog() {
+        byte[] ticks = new byte[length];
+        System.arraycopy(buffer, 0, ticks, 0, length);
+        return new InputLog(world.getScreenWidth(), world.getScreenHeight(),
+                world.getPlayerSize(), world.getStoneSize(), world.getBulletSize(),
+                world.getStones().getCapacity(), world.getBullets().getCapacity(),
+                world.getSeed(), world.getWaveSchedule(), tickCount, ticks, length,
+                world.stateHash());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.spacegame;
+
+/**
+ * Time per tick or frame against the number of live entities, for stress
+ * runs. Samples go into one histogram per bucket of bucketSize entities, so
+ * the report shows at which entity count the percentiles start to climb.
+ *
+ * Recording never allocates and is meant for a single writer thread; counts
+ * beyond the last bucket land in it.
+ */
+public class LoadCurve {
+    private final int bucketSize;
+    private final Histogram[] buckets;
+
+    public LoadCurve(int bucketSize, int maxEntities) {
+        if (bucketSize <= 0 || maxEntities < 0) {
+            throw new IllegalArgumentException("Bad bucket size or entity count");
+        }
+        this.bucketSize = bucketSize;
+        buckets = new Histogram[maxEntities / bucketSize + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Histogram();
+        }
+    }
+
+    public void record(int entityCount, long nanos) {
+        buckets[indexOf(entityCount)].record(nanos);
+    }
+
+    // Histogram of the bucket holding entityCount
+    public Histogram getBucket(int entityCount) {
+        return buckets[indexOf(entityCount)];
+    }
+
+    private int indexOf(int entityCount) {
+        return Math.min(Math.max(entityCount, 0) / bucketSize, buckets.length - 1);
+    }
+
+    public void reset() {
+        for (Histogram bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    // Writes one row per non-empty bucket, named by its lowest entity count, times in microseconds
+    public void dump(String name, StringBuilder out) {
+        out.append(name).append(" entities count p50 p95 p99 max (us)\n");
+        for (int i = 0; i < buckets.length; i++) {
+            Histogram bucket = buckets[i];
+            if (bucket.getCount() == 0) {
+                continue;
+            }
+            out.append(i * bucketSize)
+                    .append(i == buckets.length - 1 ? "+" : "")
+                    .append(' ').append(bucket.getCount())
+                    .append(' ').append(bucket.getValueAtPercentile(50) / 1000)
+                    .append(' ').append(bucket.getValueAtPercentile(95) / 1000)
+                    .append(' ').append(bucket.getValueAtPercentile(99) / 1000)
+                    .append(' ').append(bucket.getMax() / 1000)
+                    .append('\n');
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.spacegame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A batch of loading tasks run on a background executor before play starts.
+ *
+ * Tasks are added up front, started together and may run in parallel; any
+ * thread can poll the progress (for a loading screen) while the game threads
+ * wait for completion. Everything a task writes happens-before a successful
+ * await() returns, so the waiting thread can use the results without further
+ * synchronization. The first task that throws is kept and rethrown by await().
+ */
+public class LoadStage {
+    private final List<String> names = new ArrayList<>();
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private CountDownLatch remaining;
+    private volatile RuntimeException failure;
+    private volatile String failedTask;
+
+    private long startTime;
+    private volatile long elapsedNanos;
+
+    // Must be called before start()
+    public void add(String name, Runnable task) {
+        if (remaining != null) {
+            throw new IllegalStateException("Stage already started");
+        }
+        names.add(name);
+        tasks.add(task);
+    }
+
+    public void start(Executor executor) {
+        if (remaining != null) {
+            throw new IllegalStateException("Stage already started");
+        }
+        remaining = new CountDownLatch(tasks.size());
+        startTime = System.nanoTime();
+        if (tasks.isEmpty()) {
+            elapsedNanos = 0;
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            String name = names.get(i);
+            Runnable task = tasks.get(i);
+            executor.execute(() -> run(name, task));
+        }
+    }
+
+    private void run(String name, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failedTask = name;
+                failure = e;
+            }
+        } finally {
+            if (completedCount.incrementAndGet() == tasks.size()) {
+                elapsedNanos = System.nanoTime() - startTime;
+            }
+            remaining.countDown();
+        }
+    }
+
+    // Waits up to timeoutNanos; returns true once every task has finished
+    public boolean await(long timeoutNanos) throws InterruptedException {
+        if (remaining == null) {
+            throw new IllegalStateException("Stage not started");
+        }
+        if (!remaining.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        RuntimeException e = failure;
+        if (e != null) {
+            throw new IllegalStateException("Loading " + failedTask + " failed", e);
+        }
+        return true;
+    }
+
+    public boolean isDone() {
+        return remaining != null && remaining.getCount() == 0;
+    }
+
+    // Fraction of tasks finished, 0 to 1
+    public float getProgress() {
+        return tasks.isEmpty() ? 1f : (float) completedCount.get() / tasks.size();
+    }
+
+    public int getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    // Wall time from start() until the last task finished, 0 while running
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.spacegame;
+
+/**
+ * In-place quicksort for packed long sort keys, shared by the per-frame and
+ * per-tick sorts. Arrays.sort(long[]) may allocate a merge buffer; this never
+ * allocates. Not stable, so callers make their keys unique.
+ */
+final class LongSort {
+
+    private LongSort() {
+    }
+
+    // Sorts keys[low..high] ascending
+    static void sort(long[] keys, int low, int high) {
+        while (high - low > 16) {
+            // Median of three as the pivot
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < keys[low]) swap(keys, middle, low);
+            if (keys[high] < keys[low]) swap(keys, high, low);
+            if (keys[high] < keys[middle]) swap(keys, high, middle);
+            long pivot = keys[middle];
+
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(keys, i++, j--);
+                }
+            }
+
+            // Recurse into the smaller half, loop on the larger to bound the stack
+            if (j - low < high - i) {
+                sort(keys, low, j);
+                low = i;
+            } else {
+                sort(keys, i, high);
+                high = j;
+            }
+        }
+
+        // Insertion sort for short ranges, which also covers nearly sorted input cheaply
+        for (int i = low + 1; i <= high; i++) {
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= low && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    private static void swap(long[] keys, int a, int b) {
+        long t = keys[a];
+        keys[a] = keys[b];
+        keys[b] = t;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.spacegame;
+
+import java.util.Random;
+
+/**
+ * Pooled, structure-of-arrays particles for explosion bursts and the ship's
+ * engine trail.
+ *
+ * Every array is allocated up front for a hard budget of capacity particles;
+ * emitting into a full pool drops the new particles and counts them. update()
+ * moves, ages and recolors all particles in one loop, swap-removing the ones
+ * that died, so nothing allocates after construction.
+ *
+ * A particle's color is an index into PALETTE that walks along its emitter's
+ * color ramp as it ages. Renderers build one sprite per palette entry and draw
+ * particles centered on their position, so particles of one color go out in
+ * one batch.
+ *
+ * Particles are cosmetic: they draw from their own Random and are not part of
+ * GameWorld.stateHash(), but like the rest of the world they're a pure
+ * function of the seed and input.
+ */
+public class ParticleSystem {
+
+    // Emitter kinds
+    public static final int EMITTER_EXPLOSION = 0;
+    public static final int EMITTER_ENGINE = 1;
+
+    // Sprite size in pixels, particles are drawn centered on their position
+    public static final int PARTICLE_SIZE = 6;
+
+    // ARGB colors, one color ramp per emitter from young to old
+    public static final int[] PALETTE = {
+            0xFFFFFFFF, 0xFFFFF176, 0xFFFFB300, 0xFFF4511E, 0xFFB71C1C, 0xFF5D4037, // explosion
+            0xFFE1F5FE, 0xFF4FC3F7, 0xFF1E88E5, 0xFF283593, // engine
+    };
+    private static final int[] RAMP_START = {0, 6};
+    private static final int[] RAMP_LENGTH = {6, 4};
+
+    // Per emitter: particles per emit(), speed range in pixels per tick, life range in ticks
+    private static final int[] BURST = {24, 2};
+    private static final float[] MIN_SPEED = {2f, 3f};
+    private static final float[] MAX_SPEED = {9f, 6f};
+    private static final int[] MIN_LIFE = {20, 8};
+    private static final int[] MAX_LIFE = {40, 14};
+
+    // Engine exhaust leaves straight down, spread by up to this many radians either way
+    private static final float ENGINE_SPREAD = 0.35f;
+
+    // Velocity kept per tick
+    private static final float DRAG = 0.92f;
+
+    // Per-particle state, valid for indices [0, size())
+    public final float[] x;
+    public final float[] y;
+    public final float[] prevX;
+    public final float[] prevY;
+    public final float[] vx;
+    public final float[] vy;
+    public final int[] life; // ticks left
+    public final int[] maxLife;
+    public final int[] emitter;
+    public final int[] color; // PALETTE index
+
+    private final int capacity;
+    private final Random random;
+    private final Clock clock;
+    private int size;
+
+    // Statistics
+    private int highWaterMark;
+    private long droppedCount;
+    private long lastUpdateNanos;
+
+    public ParticleSystem(int capacity, long seed) {
+        this(capacity, seed, Clock.SYSTEM);
+    }
+
+    // The clock only times update() for the metrics
+    public ParticleSystem(int capacity, long seed, Clock clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+        random = new Random(seed);
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new int[capacity];
+        maxLife = new int[capacity];
+        emitter = new int[capacity];
+        color = new int[capacity];
+    }
+
+    // Emits one emitter's burst at (centerX, centerY); returns how many particles fit the budget
+    public int emit(int kind, float centerX, float centerY) {
+        int count = Math.min(BURST[kind], capacity - size);
+        droppedCount += BURST[kind] - count;
+        for (int n = 0; n < count; n++) {
+            float angle = kind == EMITTER_ENGINE
+                    ? (float) (Math.PI / 2) + (random.nextFloat() * 2f - 1f) * ENGINE_SPREAD
+                    : random.nextFloat() * (float) (2 * Math.PI);
+            float speed = MIN_SPEED[kind] + random.nextFloat() * (MAX_SPEED[kind] - MIN_SPEED[kind]);
+            int lifetime = MIN_LIFE[kind] + random.nextInt(MAX_LIFE[kind] - MIN_LIFE[kind] + 1);
+
+            int i = size++;
+            x[i] = centerX;
+            y[i] = centerY;
+            prevX[i] = centerX;
+            prevY[i] = centerY;
+            vx[i] = (float) Math.cos(angle) * speed;
+            vy[i] = (float) Math.sin(angle) * speed;
+            life[i] = lifetime;
+            maxLife[i] = lifetime;
+            emitter[i] = kind;
+            color[i] = RAMP_START[kind];
+        }
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+        return count;
+    }
+
+    // Advances every particle by one simulation step
+    public void update() {
+        long start = clock.nanoTime();
+        int i = 0;
+        while (i < size) {
+            if (--life[i] <= 0) {
+                // Swap the last particle in and update it on the next pass
+                size--;
+                move(size, i);
+                continue;
+            }
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vx[i] *= DRAG;
+            vy[i] *= DRAG;
+            int kind = emitter[i];
+            color[i] = RAMP_START[kind] + (maxLife[i] - life[i]) * RAMP_LENGTH[kind] / maxLife[i];
+            i++;
+        }
+        lastUpdateNanos = clock.nanoTime() - start;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        life[to] = life[from];
+        maxLife[to] = maxLife[from];
+        emitter[to] = emitter[from];
+        color[to] = color[from];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Most particles alive at once
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    // Particles not emitted because the budget was used up
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    // Time the last update() took
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+}
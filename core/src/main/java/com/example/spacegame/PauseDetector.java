@@ -0,0 +1,65 @@
+package com.example.spacegame;
+
+/**
+ * Estimates stop-the-world pauses (GC, scheduler stalls) by repeatedly
+ * sleeping for a short interval and recording how much longer than asked
+ * each sleep took. A pause that freezes the process shows up as one long
+ * oversleep, whatever thread it hit.
+ *
+ * Sampling wakes up a thousand times a second, so it should only run while
+ * someone looks at the result, e.g. while the performance overlay is shown.
+ * start() and stop() may be called repeatedly and from any thread.
+ */
+public class PauseDetector implements Runnable {
+    private static final long SLEEP_NANOS = 1_000_000; // 1 ms
+
+    private final Histogram pauses = new Histogram();
+    // The sampling thread; one that's been replaced or stopped exits
+    private volatile Thread thread;
+
+    // Does nothing if already running
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this, "PauseDetector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (thread == Thread.currentThread()) {
+            long start = System.nanoTime();
+            try {
+                Thread.sleep(SLEEP_NANOS / 1_000_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long oversleep = System.nanoTime() - start - SLEEP_NANOS;
+            synchronized (pauses) {
+                pauses.record(oversleep);
+            }
+        }
+    }
+
+    // Copies the pauses recorded so far into target
+    public void copyTo(Histogram target) {
+        synchronized (pauses) {
+            target.copyFrom(pauses);
+        }
+    }
+
+    public void reset() {
+        synchronized (pauses) {
+            pauses.reset();
+        }
+    }
+}
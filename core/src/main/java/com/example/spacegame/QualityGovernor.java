@@ -0,0 +1,163 @@
+package com.example.spacegame;
+
+/**
+ * Steps the QualityLevel down when frames run late or the device is about to
+ * throttle, and back up once it has kept up for a while.
+ *
+ * Frame times are judged in windows of windowFrames frames: a window with
+ * more than LOWER_SLOW_FRACTION of its frames over 1.25 frame budgets, or a
+ * thermal headroom of LOWER_HEADROOM or more, lowers the level by one. The
+ * level only goes up again after RAISE_WINDOWS windows in a row with at most
+ * RAISE_SLOW_FRACTION slow frames and a headroom below RAISE_HEADROOM. The
+ * gap between the thresholds and the wait before raising keep the level from
+ * flapping; after every change the governor also sits out HOLD_WINDOWS
+ * windows, since the frames right after a resolution change say little.
+ *
+ * Thermal headroom is the platform's forecast, where 1.0 means severe
+ * throttling; NaN when the device doesn't report it, in which case only frame
+ * times count.
+ *
+ * Frames are recorded from one thread, the render thread; the headroom may
+ * be set and the level read from any thread. Recording never allocates.
+ */
+public class QualityGovernor {
+
+    // Notified on the recording thread whenever the level changes
+    public interface Listener {
+        void onQualityChange(QualityLevel from, QualityLevel to, String reason);
+    }
+
+    // Reasons passed to the listener
+    public static final String REASON_FRAME_TIME = "frame time";
+    public static final String REASON_THERMAL = "thermal headroom";
+    public static final String REASON_RECOVERED = "recovered";
+
+    static final float SLOW_FRAME_BUDGETS = 1.25f;
+    static final float LOWER_SLOW_FRACTION = 0.2f;
+    static final float RAISE_SLOW_FRACTION = 0.05f;
+    static final float LOWER_HEADROOM = 0.9f;
+    static final float RAISE_HEADROOM = 0.7f;
+    static final int RAISE_WINDOWS = 5;
+    static final int HOLD_WINDOWS = 3;
+
+    private final long slowFrameNanos;
+    private final int windowFrames;
+    private Listener listener;
+
+    private volatile int level = QualityLevel.getCount() - 1;
+    private volatile float thermalHeadroom = Float.NaN;
+
+    // Current window, recording thread only
+    private int frames;
+    private int slowFrames;
+    private long frameNanos;
+    private int goodWindows;
+    private int holdWindows;
+
+    // Last completed window, for the listener and reports
+    private float slowFraction;
+    private long averageFrameNanos;
+    private int changeCount;
+
+    public QualityGovernor(long frameBudgetNanos, int windowFrames) {
+        if (frameBudgetNanos <= 0 || windowFrames <= 0) {
+            throw new IllegalArgumentException("Bad frame budget or window");
+        }
+        slowFrameNanos = (long) (frameBudgetNanos * SLOW_FRAME_BUDGETS);
+        this.windowFrames = windowFrames;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Latest thermal headroom forecast, NaN if unknown
+    public void setThermalHeadroom(float headroom) {
+        thermalHeadroom = headroom;
+    }
+
+    // Records one frame; returns true if it completed a window that changed the level
+    public boolean recordFrame(long nanos) {
+        frames++;
+        frameNanos += nanos;
+        if (nanos > slowFrameNanos) {
+            slowFrames++;
+        }
+        if (frames < windowFrames) {
+            return false;
+        }
+
+        slowFraction = (float) slowFrames / frames;
+        averageFrameNanos = frameNanos / frames;
+        frames = 0;
+        slowFrames = 0;
+        frameNanos = 0;
+
+        if (holdWindows > 0) {
+            holdWindows--;
+            return false;
+        }
+
+        // NaN compares false both ways: unknown headroom never lowers the level or blocks raising it
+        float headroom = thermalHeadroom;
+        boolean hot = headroom >= LOWER_HEADROOM;
+        if (hot || slowFraction > LOWER_SLOW_FRACTION) {
+            goodWindows = 0;
+            return level > 0 && change(level - 1, hot ? REASON_THERMAL : REASON_FRAME_TIME);
+        }
+
+        if (slowFraction <= RAISE_SLOW_FRACTION && !(headroom >= RAISE_HEADROOM)) {
+            goodWindows++;
+            if (goodWindows >= RAISE_WINDOWS && level < QualityLevel.getCount() - 1) {
+                return change(level + 1, REASON_RECOVERED);
+            }
+        } else {
+            goodWindows = 0;
+        }
+        return false;
+    }
+
+    private boolean change(int to, String reason) {
+        QualityLevel from = getLevel();
+        level = to;
+        goodWindows = 0;
+        holdWindows = HOLD_WINDOWS;
+        changeCount++;
+        if (listener != null) {
+            listener.onQualityChange(from, getLevel(), reason);
+        }
+        return true;
+    }
+
+    // Starts a fresh window, e.g. after a pause; the level stays
+    public void reset() {
+        frames = 0;
+        slowFrames = 0;
+        frameNanos = 0;
+        goodWindows = 0;
+        holdWindows = 0;
+    }
+
+    public QualityLevel getLevel() {
+        return QualityLevel.get(level);
+    }
+
+    public float getThermalHeadroom() {
+        return thermalHeadroom;
+    }
+
+    // Share of slow frames in the last completed window
+    public float getSlowFraction() {
+        return slowFraction;
+    }
+
+    // Mean frame time of the last completed window
+    public long getAverageFrameNanos() {
+        return averageFrameNanos;
+    }
+
+    // Level changes since construction
+    public int getChangeCount() {
+        return changeCount;
+    }
+}
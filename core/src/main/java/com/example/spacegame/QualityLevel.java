@@ -0,0 +1,78 @@
+package com.example.spacegame;
+
+/**
+ * One step of the QualityGovernor: how much the game draws and simulates.
+ *
+ * Everything except the entity limit only changes rendering. The entity limit
+ * reaches the simulation through GameInput, so it's recorded with the rest of
+ * the input and replays stay deterministic.
+ */
+public final class QualityLevel {
+
+    public static final QualityLevel LOW = new QualityLevel("low", false, 2, 1, 0.5f, 300);
+    public static final QualityLevel MEDIUM = new QualityLevel("medium", true, 1, 2, 0.75f, 600);
+    public static final QualityLevel HIGH = new QualityLevel("high", true, 1,
+            Starfield.getLayerCount(), 1f, GameInput.NO_ENTITY_LIMIT);
+
+    private static final QualityLevel[] LEVELS = {LOW, MEDIUM, HIGH};
+
+    private final String name;
+    private final boolean animated;
+    private final int explosionFrameStep;
+    private final int starLayers;
+    private final float resolutionScale;
+    private final int entityLimit;
+
+    private QualityLevel(String name, boolean animated, int explosionFrameStep, int starLayers,
+                         float resolutionScale, int entityLimit) {
+        this.name = name;
+        this.animated = animated;
+        this.explosionFrameStep = explosionFrameStep;
+        this.starLayers = starLayers;
+        this.resolutionScale = resolutionScale;
+        this.entityLimit = entityLimit;
+    }
+
+    // Levels from lowest to highest
+    public static QualityLevel get(int index) {
+        return LEVELS[index];
+    }
+
+    public static int getCount() {
+        return LEVELS.length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Whether stones and bullets cycle through their animation frames; if not they
+    // all draw frame 0, which also lets each kind go out in a single batch
+    public boolean isAnimated() {
+        return animated;
+    }
+
+    // Explosions show every n-th frame, holding each for n frame lengths
+    public int getExplosionFrameStep() {
+        return explosionFrameStep;
+    }
+
+    // Number of parallax star layers drawn, nearest first
+    public int getStarLayers() {
+        return starLayers;
+    }
+
+    // Size of the drawing surface relative to the screen, scaled up by the compositor
+    public float getResolutionScale() {
+        return resolutionScale;
+    }
+
+    public int getEntityLimit() {
+        return entityLimit;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
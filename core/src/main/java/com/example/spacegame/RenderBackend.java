@@ -0,0 +1,14 @@
+package com.example.spacegame;
+
+/**
+ * Receives the sorted draw batches of a RenderCommandBuffer.
+ *
+ * Implementations map sprite ids and frames to whatever they draw with, e.g.
+ * Bitmaps on an Android Canvas, or just count the calls to measure the cost of
+ * building and sorting a frame's commands.
+ */
+public interface RenderBackend {
+
+    // Draws count instances of one sprite frame at the given positions
+    void drawBatch(int sprite, int frame, float[] x, float[] y, int count);
+}
@@ -0,0 +1,124 @@
+package com.example.spacegame;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of sprite draw commands for one frame.
+ *
+ * Commands are recorded into primitive arrays (sprite id, frame, x, y, layer),
+ * sorted by layer, then by sprite and frame so draws of the same bitmap end up
+ * next to each other, then by recording order. submit() hands each run of
+ * identical sprite frames to a RenderBackend as one batch.
+ *
+ * The arrays only grow when a frame records more commands than ever before,
+ * so a steady frame allocates nothing.
+ *
+ * Limits: layer < 128, sprite < 65536, frame < 256.
+ */
+public class RenderCommandBuffer {
+    // Room for the whole particle budget on top of a busy scene
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private int[] sprite;
+    private int[] frame;
+    private float[] x;
+    private float[] y;
+    private int[] layer;
+
+    // Sort keys: layer, sprite, frame, then the command's index
+    private long[] keys;
+
+    // Positions of the batch being submitted
+    private float[] batchX;
+    private float[] batchY;
+
+    private int size;
+    private boolean sorted;
+
+    // Statistics for the last submit()
+    private int batchCount;
+
+    public RenderCommandBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RenderCommandBuffer(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int capacity) {
+        sprite = Arrays.copyOf(sprite == null ? new int[0] : sprite, capacity);
+        frame = Arrays.copyOf(frame == null ? new int[0] : frame, capacity);
+        x = Arrays.copyOf(x == null ? new float[0] : x, capacity);
+        y = Arrays.copyOf(y == null ? new float[0] : y, capacity);
+        layer = Arrays.copyOf(layer == null ? new int[0] : layer, capacity);
+        keys = new long[capacity];
+        batchX = new float[capacity];
+        batchY = new float[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+        sorted = false;
+    }
+
+    public void add(int sprite, int frame, float x, float y, int layer) {
+        if (size == this.sprite.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        this.sprite[i] = sprite;
+        this.frame[i] = frame;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.layer[i] = layer;
+        sorted = false;
+    }
+
+    public void sort() {
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) layer[i] << 56
+                    | (long) sprite[i] << 40
+                    | (long) frame[i] << 32
+                    | i;
+        }
+        // Keys are unique because they end in the command index
+        LongSort.sort(keys, 0, size - 1);
+        sorted = true;
+    }
+
+    // Draws the commands in sorted order, sorting first if needed
+    public void submit(RenderBackend backend) {
+        if (!sorted) {
+            sort();
+        }
+
+        batchCount = 0;
+        int start = 0;
+        while (start < size) {
+            long batchKey = keys[start] >>> 32;
+            int count = 0;
+            int end = start;
+            while (end < size && keys[end] >>> 32 == batchKey) {
+                int i = (int) keys[end];
+                batchX[count] = x[i];
+                batchY[count] = y[i];
+                count++;
+                end++;
+            }
+
+            int first = (int) keys[start];
+            backend.drawBatch(sprite[first], frame[first], batchX, batchY, count);
+            batchCount++;
+            start = end;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.spacegame;
+
+/**
+ * Everything the renderer needs from one GameWorld step: game time, player,
+ * entity and particle positions (current and previous, for interpolation),
+ * animation frames and flags, particle colors, lives, score and the game over
+ * state.
+ *
+ * Snapshots are preallocated for the world's capacities and filled with
+ * copyFrom() on the update thread, then handed to the render thread through a
+ * TripleBuffer, so rendering never reads the live world.
+ */
+public class RenderSnapshot {
+
+    // Compact copy of the drawable part of an EntityStore
+    public static class Entities {
+        public final int[] x;
+        public final int[] y;
+        public final int[] prevX;
+        public final int[] prevY;
+        public final int[] frame;
+        public final int[] flags;
+        private int size;
+
+        public Entities(int capacity) {
+            x = new int[capacity];
+            y = new int[capacity];
+            prevX = new int[capacity];
+            prevY = new int[capacity];
+            frame = new int[capacity];
+            flags = new int[capacity];
+        }
+
+        // Frames are resolved from each entity's clip at game time now
+        void copyFrom(EntityStore store, long now) {
+            size = store.size();
+            System.arraycopy(store.x, 0, x, 0, size);
+            System.arraycopy(store.y, 0, y, 0, size);
+            System.arraycopy(store.prevX, 0, prevX, 0, size);
+            System.arraycopy(store.prevY, 0, prevY, 0, size);
+            System.arraycopy(store.flags, 0, flags, 0, size);
+            for (int i = 0; i < size; i++) {
+                frame[i] = store.frameAt(i, now);
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean hasFlag(int i, int flag) {
+            return (flags[i] & flag) != 0;
+        }
+    }
+
+    // Compact copy of the drawable part of a ParticleSystem
+    public static class Particles {
+        public final float[] x;
+        public final float[] y;
+        public final float[] prevX;
+        public final float[] prevY;
+        public final int[] color;
+        private int size;
+
+        public Particles(int capacity) {
+            x = new float[capacity];
+            y = new float[capacity];
+            prevX = new float[capacity];
+            prevY = new float[capacity];
+            color = new int[capacity];
+        }
+
+        void copyFrom(ParticleSystem particles) {
+            size = particles.size();
+            System.arraycopy(particles.x, 0, x, 0, size);
+            System.arraycopy(particles.y, 0, y, 0, size);
+            System.arraycopy(particles.prevX, 0, prevX, 0, size);
+            System.arraycopy(particles.prevY, 0, prevY, 0, size);
+            System.arraycopy(particles.color, 0, color, 0, size);
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    private final Entities stones;
+    private final Entities bullets;
+    private final Particles particles;
+
+    private long tickCount;
+    private long timeMillis;
+    private long stepTimeNanos;
+    private long inputTimeNanos;
+    private int playerX;
+    private int previousPlayerX;
+    private int playerY;
+    private int playerFrame;
+    private int lives;
+    private int score;
+    private boolean gameOver;
+
+    public RenderSnapshot(int stoneCapacity, int bulletCapacity, int particleCapacity) {
+        stones = new Entities(stoneCapacity);
+        bullets = new Entities(bulletCapacity);
+        particles = new Particles(particleCapacity);
+    }
+
+    // Sized for a world's entity stores and particles
+    public RenderSnapshot(GameWorld world) {
+        this(world.getStones().getCapacity(), world.getBullets().getCapacity(),
+                world.getParticles().getCapacity());
+    }
+
+    // stepTimeNanos is the clock time the world's latest step stands for
+    public void copyFrom(GameWorld world, long stepTimeNanos) {
+        this.stepTimeNanos = stepTimeNanos;
+        inputTimeNanos = 0;
+        tickCount = world.getTickCount();
+        timeMillis = world.getTimeMillis();
+        playerX = world.getPlayerX();
+        previousPlayerX = world.getPreviousPlayerX();
+        playerY = world.getPlayerY();
+        playerFrame = world.getPlayerFrame();
+        lives = world.getLives();
+        score = world.getScore();
+        gameOver = world.isGameOver();
+        stones.copyFrom(world.getStones(), timeMillis);
+        bullets.copyFrom(world.getBullets(), timeMillis);
+        particles.copyFrom(world.getParticles());
+    }
+
+    // Interpolation factor in [0, 1] for drawing this snapshot at clock time now
+    public float alphaAt(long now, long stepNanos) {
+        float alpha = (float) (now - stepTimeNanos) / stepNanos;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    // Game time of the snapshot's step
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getStepTimeNanos() {
+        return stepTimeNanos;
+    }
+
+    // Time of the oldest touch applied since the previous snapshot, 0 if none
+    public long getInputTimeNanos() {
+        return inputTimeNanos;
+    }
+
+    public void setInputTimeNanos(long inputTimeNanos) {
+        this.inputTimeNanos = inputTimeNanos;
+    }
+
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    public int getPreviousPlayerX() {
+        return previousPlayerX;
+    }
+
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    public int getPlayerFrame() {
+        return playerFrame;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public Entities getStones() {
+        return stones;
+    }
+
+    public Entities getBullets() {
+        return bullets;
+    }
+
+    public Particles getParticles() {
+        return particles;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.spacegame;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Re-runs an InputLog headlessly, as fast as the CPU allows, and checks that
+ * the final state hash matches the recorded one. Logs recorded by another
+ * version of the simulation rules are rejected when read, since a mismatch
+ * there says nothing about determinism.
+ *
+ * Also runnable from the command line with log files as arguments, see the
+ * core module's replay task.
+ */
+public class Replayer {
+
+    public static class Result {
+        private final int ticks;
+        private final long elapsedNanos;
+        private final long stateHash;
+        private final long expectedStateHash;
+
+        Result(int ticks, long elapsedNanos, long stateHash, long expectedStateHash) {
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            this.stateHash = stateHash;
+            this.expectedStateHash = expectedStateHash;
+        }
+
+        public boolean matches() {
+            return stateHash == expectedStateHash;
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+        }
+
+        public long getStateHash() {
+            return stateHash;
+        }
+
+        public long getExpectedStateHash() {
+            return expectedStateHash;
+        }
+    }
+
+    public Result replay(InputLog log) {
+        GameWorld world = log.createWorld();
+        InputLog.Reader reader = log.reader();
+        GameInput input = new GameInput();
+
+        long start = System.nanoTime();
+        int ticks = 0;
+        while (reader.next(input)) {
+            world.tick(input);
+            ticks++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(ticks, elapsed, world.stateHash(), log.getFinalStateHash());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replayer <input log>...");
+            System.exit(2);
+        }
+
+        boolean allMatch = true;
+        Replayer replayer = new Replayer();
+        for (String path : args) {
+            InputLog log;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+                log = InputLog.read(in);
+            } catch (IOException e) {
+                System.out.printf("%s: %s%n", path, e.getMessage());
+                allMatch = false;
+                continue;
+            }
+            Result result = replayer.replay(log);
+            allMatch &= result.matches();
+            System.out.printf("%s: %d ticks in %.1f ms (%.0f ticks/s), hash %s%n",
+                    path, result.getTicks(), result.getElapsedNanos() / 1e6,
+                    result.getTicksPerSecond(), result.matches() ? "matches" : "MISMATCH");
+        }
+        System.exit(allMatch ? 0 : 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.spacegame;
+
+/**
+ * Turns a RenderSnapshot into sprite commands, so what gets drawn each frame
+ * is decided without touching a Canvas.
+ *
+ * Sprite ids and layers are shared with the backends, which map each sprite
+ * id to its frames.
+ */
+public final class SceneRecorder {
+
+    // Sprite ids
+    public static final int SPRITE_BACKGROUND = 0; // Starfield tile
+    public static final int SPRITE_PLAYER = 1;
+    public static final int SPRITE_BULLET = 2;
+    public static final int SPRITE_STONE = 3;
+    public static final int SPRITE_STONE_EXPLOSION = 4;
+    public static final int SPRITE_STAR = 5; // frame is the Starfield layer
+    public static final int SPRITE_HUD = 6; // frame is the HUD field
+    public static final int SPRITE_PARTICLE = 7; // frame is the ParticleSystem palette index
+    public static final int SPRITE_COUNT = 8;
+
+    // Layers, drawn from lowest to highest
+    public static final int LAYER_BACKGROUND = 0;
+    public static final int LAYER_PLAYER = 1;
+    public static final int LAYER_BULLETS = 2;
+    public static final int LAYER_STONES = 3;
+    public static final int LAYER_PARTICLES = 4;
+    public static final int LAYER_HUD = 5;
+
+    private SceneRecorder() {
+    }
+
+    // Records the whole scene, interpolated alpha of the way to the snapshot's step
+    public static void record(RenderSnapshot snapshot, float alpha, Starfield starfield,
+                              RenderCommandBuffer commands) {
+        record(snapshot, alpha, starfield, QualityLevel.HIGH, commands);
+    }
+
+    // Same, with the detail of the given quality level
+    public static void record(RenderSnapshot snapshot, float alpha, Starfield starfield,
+                              QualityLevel quality, RenderCommandBuffer commands) {
+        // The snapshot's previous positions are one step before its time
+        float stepMillis = GameWorld.STEP_NANOS / 1_000_000f;
+        starfield.record(snapshot.getTimeMillis() - (1 - alpha) * stepMillis,
+                quality.getStarLayers(), commands);
+        boolean animated = quality.isAnimated();
+        int explosionFrameStep = quality.getExplosionFrameStep();
+
+        int previousX = snapshot.getPreviousPlayerX();
+        float playerX = previousX + (snapshot.getPlayerX() - previousX) * alpha;
+        commands.add(SPRITE_PLAYER, snapshot.getPlayerFrame(), playerX, snapshot.getPlayerY(), LAYER_PLAYER);
+
+        RenderSnapshot.Entities bullets = snapshot.getBullets();
+        for (int i = 0; i < bullets.size(); i++) {
+            float drawY = bullets.prevY[i] + (bullets.y[i] - bullets.prevY[i]) * alpha;
+            int frame = animated ? bullets.frame[i] : 0;
+            commands.add(SPRITE_BULLET, frame, bullets.x[i], drawY, LAYER_BULLETS);
+        }
+
+        RenderSnapshot.Entities stones = snapshot.getStones();
+        for (int i = 0; i < stones.size(); i++) {
+            float drawY = stones.prevY[i] + (stones.y[i] - stones.prevY[i]) * alpha;
+            if (stones.hasFlag(i, EntityStore.FLAG_EXPLODING)) {
+                int frame = stones.frame[i] - stones.frame[i] % explosionFrameStep;
+                commands.add(SPRITE_STONE_EXPLOSION, frame, stones.x[i], drawY, LAYER_STONES);
+            } else {
+                int frame = animated ? stones.frame[i] : 0;
+                commands.add(SPRITE_STONE, frame, stones.x[i], drawY, LAYER_STONES);
+            }
+        }
+
+        RenderSnapshot.Particles particles = snapshot.getParticles();
+        float half = ParticleSystem.PARTICLE_SIZE / 2f;
+        for (int i = 0; i < particles.size(); i++) {
+            float drawX = particles.prevX[i] + (particles.x[i] - particles.prevX[i]) * alpha - half;
+            float drawY = particles.prevY[i] + (particles.y[i] - particles.prevY[i]) * alpha - half;
+            commands.add(SPRITE_PARTICLE, particles.color[i], drawX, drawY, LAYER_PARTICLES);
+        }
+    }
+}
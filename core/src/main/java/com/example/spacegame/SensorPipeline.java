@@ -0,0 +1,115 @@
+package com.example.spacegame;
+
+/**
+ * Hands accelerometer samples from the sensor thread to the update thread.
+ *
+ * The sensor thread offers every sample with its timestamp into a
+ * preallocated single-producer, single-consumer ring, so a batch delivered
+ * at once (see maxReportLatencyUs) keeps its spacing and nothing that
+ * arrived between ticks is lost. At the start of each tick the update
+ * thread drains the ring through a TiltFilter and reads the filtered value
+ * for the tick's time. Draining also records how long each sample waited
+ * (sensor-to-tick latency) and measures the delivered sample rate.
+ */
+public class SensorPipeline {
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final SpscRing ring;
+    private final float[] values;
+    private final long[] times;
+
+    private final TiltFilter filter;
+
+    // Sensor-to-tick latency, recorded by the update thread and copied out by others
+    private final Histogram latency = new Histogram();
+
+    // Sample rate over the last full window of sample timestamps (consumer only)
+    private long windowStart;
+    private int windowSamples;
+    private volatile float sampleRate;
+
+    // capacity must be a power of two
+    public SensorPipeline(int capacity, TiltFilter filter) {
+        ring = new SpscRing(capacity);
+        values = new float[capacity];
+        times = new long[capacity];
+        this.filter = filter;
+    }
+
+    // Producer only; timestamp on the System.nanoTime() clock. Returns false,
+    // dropping the sample, if the update thread has fallen a whole ring behind
+    public boolean offer(float value, long timeNanos) {
+        int index = ring.claim();
+        if (index < 0) {
+            return false;
+        }
+
+        values[index] = value;
+        times[index] = timeNanos;
+        ring.publish();
+        return true;
+    }
+
+    // Consumer only; feeds every queued sample to the filter and returns the
+    // filtered value at now
+    public float sample(long now) {
+        long h = ring.head();
+        long t = ring.tail();
+        if (h != t) {
+            synchronized (latency) {
+                for (long i = h; i < t; i++) {
+                    int index = ring.index(i);
+                    long time = times[index];
+                    filter.add(values[index], time);
+                    latency.record(Math.max(now - time, 0));
+                    countSample(time);
+                }
+            }
+            ring.release(t);
+        }
+        return filter.valueAt(now);
+    }
+
+    private void countSample(long time) {
+        if (windowSamples == 0) {
+            windowStart = time;
+        }
+        windowSamples++;
+        long span = time - windowStart;
+        if (span >= RATE_WINDOW_NANOS) {
+            sampleRate = (windowSamples - 1) * 1e9f / span;
+            windowStart = time;
+            windowSamples = 1;
+        }
+    }
+
+    // Consumer only; drops queued samples and filter state, e.g. after a pause
+    public void clear() {
+        ring.clear();
+        filter.reset();
+        windowSamples = 0;
+    }
+
+    // Copies the sensor-to-tick latency recorded so far into target
+    public void copyLatencyTo(Histogram target) {
+        synchronized (latency) {
+            target.copyFrom(latency);
+        }
+    }
+
+    public void resetStatistics() {
+        synchronized (latency) {
+            latency.reset();
+        }
+        ring.resetOverflowCount();
+    }
+
+    // Samples per second actually delivered, 0 until a full window has been seen
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getOverflowCount() {
+        return ring.getOverflowCount();
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.spacegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous sound events with coalescing, priorities and a voice budget.
+ *
+ * Gameplay code calls post(), which only appends to a lock-free queue and
+ * wakes the dedicated audio thread. That thread sleeps while nothing is
+ * posted; once woken it drains the queue and decides what actually plays:
+ *
+ *  - an event for a sound that started playing less than the merge window
+ *    ago is merged into it (raising its volume if louder) instead of
+ *    starting another voice;
+ *  - at most voiceBudget voices play at once, so the player never has to cut
+ *    voices itself; when the budget is full, a new sound replaces the oldest
+ *    voice of the lowest priority if its own priority is at least as high,
+ *    and is dropped otherwise;
+ *  - the time from post() to play is recorded in a latency histogram.
+ *
+ * Voices are considered done after their sound's registered duration, since
+ * players don't report when a sound finishes.
+ */
+public class SoundBus implements Runnable {
+    public static final int MAX_SOUNDS = 16;
+
+    private final SoundPlayer player;
+    private final Clock clock;
+    private final long mergeWindowNanos;
+    private final SoundEventQueue queue;
+
+    // Registered sounds
+    private final int[] priorities = new int[MAX_SOUNDS];
+    private final long[] durations = new long[MAX_SOUNDS];
+
+    // Voices, audio thread only; a voice is free when its end time has passed
+    private final int[] voiceStream;
+    private final int[] voiceSound;
+    private final float[] voiceVolume;
+    private final long[] voiceStart;
+    private final long[] voiceEnd;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // Statistics, written by the audio thread except overflowCount
+    private final Histogram latency = new Histogram();
+    private volatile long playedCount;
+    private volatile long mergedCount;
+    private volatile long stolenCount;
+    private volatile long droppedCount;
+    private volatile long failedCount;
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    public SoundBus(SoundPlayer player, Clock clock, int voiceBudget, long mergeWindowNanos, int queueCapacity) {
+        this.player = player;
+        this.clock = clock;
+        this.mergeWindowNanos = mergeWindowNanos;
+        queue = new SoundEventQueue(queueCapacity);
+        voiceStream = new int[voiceBudget];
+        voiceSound = new int[voiceBudget];
+        voiceVolume = new float[voiceBudget];
+        voiceStart = new long[voiceBudget];
+        voiceEnd = new long[voiceBudget];
+    }
+
+    // Before start(): higher priorities win voices; duration is how long a voice stays busy
+    public void register(int sound, int priority, long durationNanos) {
+        priorities[sound] = priority;
+        durations[sound] = durationNanos;
+    }
+
+    // Any thread, never blocks; returns false if the queue was full and the event was lost
+    public boolean post(int sound, float volume) {
+        if (!queue.offer(sound, volume, clock.nanoTime())) {
+            overflowCount.incrementAndGet();
+            return false;
+        }
+        Thread audio = thread;
+        if (audio != null) {
+            LockSupport.unpark(audio);
+        }
+        return true;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "SpaceGame-audio");
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+
+        // Sounds posted while stopping would only play late after the next start()
+        while (queue.poll()) {
+            droppedCount++;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            process(clock.nanoTime());
+            // A post() since the queue was drained leaves a permit, so no event waits here
+            LockSupport.park(this);
+        }
+    }
+
+    // Audio thread: plays, merges or drops every queued event
+    void process(long now) {
+        while (queue.poll()) {
+            int sound = queue.getPolledSound();
+            float volume = queue.getPolledVolume();
+
+            int merged = findRecentVoice(sound, now);
+            if (merged >= 0) {
+                if (volume > voiceVolume[merged]) {
+                    voiceVolume[merged] = volume;
+                    player.setVolume(voiceStream[merged], volume);
+                }
+                mergedCount++;
+                continue;
+            }
+
+            int voice = findFreeVoice(now);
+            if (voice < 0) {
+                voice = findVictim(now);
+                if (priorities[voiceSound[voice]] > priorities[sound]) {
+                    droppedCount++;
+                    continue;
+                }
+                player.stop(voiceStream[voice]);
+                voiceEnd[voice] = now;
+                stolenCount++;
+            }
+
+            int stream = player.play(sound, volume, priorities[sound]);
+            if (stream == 0) {
+                failedCount++;
+                continue;
+            }
+            voiceStream[voice] = stream;
+            voiceSound[voice] = sound;
+            voiceVolume[voice] = volume;
+            voiceStart[voice] = now;
+            voiceEnd[voice] = now + durations[sound];
+            playedCount++;
+
+            synchronized (latency) {
+                latency.record(now - queue.getPolledTime());
+            }
+        }
+    }
+
+    // A playing voice of this sound that started within the merge window
+    private int findRecentVoice(int sound, long now) {
+        for (int v = 0; v < voiceStream.length; v++) {
+            if (voiceEnd[v] > now && voiceSound[v] == sound && now - voiceStart[v] < mergeWindowNanos) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private int findFreeVoice(long now) {
+        for (int v = 0; v < voiceStream.length; v++) {
+            if (voiceEnd[v] <= now) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    // Oldest voice of the lowest priority; only called when every voice is busy
+    private int findVictim(long now) {
+        int victim = 0;
+        for (int v = 1; v < voiceStream.length; v++) {
+            int priority = priorities[voiceSound[v]];
+            int victimPriority = priorities[voiceSound[victim]];
+            if (priority < victimPriority || (priority == victimPriority && voiceStart[v] < voiceStart[victim])) {
+                victim = v;
+            }
+        }
+        return victim;
+    }
+
+    // Copies the post-to-play latencies recorded so far into target
+    public void copyLatencyTo(Histogram target) {
+        synchronized (latency) {
+            target.copyFrom(latency);
+        }
+    }
+
+    public long getPlayedCount() {
+        return playedCount;
+    }
+
+    public long getMergedCount() {
+        return mergedCount;
+    }
+
+    public long getStolenCount() {
+        return stolenCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    // Writes counters and latency percentiles, times in microseconds
+    public void dump(StringBuilder out) {
+        Histogram snapshot = new Histogram();
+        copyLatencyTo(snapshot);
+        out.append("sound played ").append(playedCount)
+                .append(", merged ").append(mergedCount)
+                .append(", stolen ").append(stolenCount)
+                .append(", dropped ").append(droppedCount)
+                .append(", failed ").append(failedCount)
+                .append(", overflow ").append(getOverflowCount()).append('\n');
+        out.append("sound latency p50 ").append(snapshot.getValueAtPercentile(50) / 1000)
+                .append(" p99 ").append(snapshot.getValueAtPercentile(99) / 1000)
+                .append(" max ").append(snapshot.getMax() / 1000).append(" (us)\n");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.spacegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of sound events (sound id, volume, post time) from
+ * any number of producer threads to one consumer.
+ *
+ * Events live in preallocated primitive arrays. Each slot has a sequence
+ * number saying whether it's free to write or ready to read (Vyukov's bounded
+ * queue), so offer() never blocks and nothing is allocated per event.
+ */
+public class SoundEventQueue {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] sounds;
+    private final float[] volumes;
+    private final long[] times;
+
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, shared by producers
+    private long head;                                // next slot to read, consumer only
+
+    // Event taken by the last successful poll()
+    private int polledSound;
+    private float polledVolume;
+    private long polledTime;
+
+    // capacity must be a power of two
+    public SoundEventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        sounds = new int[capacity];
+        volumes = new float[capacity];
+        times = new long[capacity];
+    }
+
+    // Any thread; returns false if the queue is full
+    public boolean offer(int sound, float volume, long time) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer hasn't freed this slot yet
+                return false;
+            } else {
+                // Another producer took this slot, try the next
+                position = tail.get();
+            }
+        }
+
+        sounds[index] = sound;
+        volumes[index] = volume;
+        times[index] = time;
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    // Consumer only; takes the oldest event, read it with the getPolled methods
+    public boolean poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return false;
+        }
+
+        polledSound = sounds[index];
+        polledVolume = volumes[index];
+        polledTime = times[index];
+        sequences.set(index, head + mask + 1);
+        head++;
+        return true;
+    }
+
+    public int getPolledSound() {
+        return polledSound;
+    }
+
+    public float getPolledVolume() {
+        return polledVolume;
+    }
+
+    public long getPolledTime() {
+        return polledTime;
+    }
+}
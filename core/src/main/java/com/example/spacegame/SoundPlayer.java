@@ -0,0 +1,12 @@
+package com.example.spacegame;
+
+// Plays sounds for a SoundBus, e.g. through Android's SoundPool; only called from the audio thread
+public interface SoundPlayer {
+
+    // Starts a sound and returns its stream id, or 0 if it couldn't be played
+    int play(int sound, float volume, int priority);
+
+    void setVolume(int stream, float volume);
+
+    void stop(int stream);
+}
@@ -0,0 +1,128 @@
+package com.example.spacegame;
+
+/**
+ * Uniform-grid broadphase, rebuilt every tick without allocating.
+ *
+ * Each entity is filed under the cell holding its top-left corner. As long as
+ * no entity is larger than a cell, anything overlapping a query rectangle is
+ * found in the rectangle's cells plus one extra column to the left and one
+ * extra row above.
+ *
+ * Usage per tick: clear(), insert() every collidable entity, build(), then
+ * query() as often as needed.
+ */
+public class SpatialGrid {
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Entities in cell c are entries[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] entries;
+
+    // Insertions pending the next build()
+    private final int[] insertedIndex;
+    private final int[] insertedCell;
+    private int insertedCount;
+
+    // Statistics for the current tick
+    private int candidatePairs;
+    private int hits;
+
+    public SpatialGrid(int worldWidth, int worldHeight, int cellSize, int capacity) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+        rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+
+        cellStart = new int[columns * rows + 1];
+        entries = new int[capacity];
+        insertedIndex = new int[capacity];
+        insertedCell = new int[capacity];
+    }
+
+    public void clear() {
+        insertedCount = 0;
+        candidatePairs = 0;
+        hits = 0;
+    }
+
+    // Files an entity index by its top-left corner; ignored if the grid is full
+    public void insert(int index, int x, int y) {
+        if (insertedCount == entries.length) {
+            return;
+        }
+        insertedIndex[insertedCount] = index;
+        insertedCell[insertedCount] = column(x) + row(y) * columns;
+        insertedCount++;
+    }
+
+    // Counting sort of the inserted entities into their cells
+    public void build() {
+        int cellCount = columns * rows;
+        for (int c = 0; c <= cellCount; c++) {
+            cellStart[c] = 0;
+        }
+        for (int i = 0; i < insertedCount; i++) {
+            cellStart[insertedCell[i] + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // cellStart[c] is used as a write cursor, then shifted back
+        for (int i = 0; i < insertedCount; i++) {
+            entries[cellStart[insertedCell[i]]++] = insertedIndex[i];
+        }
+        for (int c = cellCount; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    // Writes the indices of entities that may overlap the rectangle into results
+    // and returns how many were written
+    public int query(int left, int top, int right, int bottom, int[] results) {
+        int firstColumn = Math.max(0, column(left) - 1);
+        int lastColumn = column(right);
+        int firstRow = Math.max(0, row(top) - 1);
+        int lastRow = row(bottom);
+
+        int count = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = c + r * columns;
+                for (int e = cellStart[cell]; e < cellStart[cell + 1] && count < results.length; e++) {
+                    results[count++] = entries[e];
+                }
+            }
+        }
+
+        candidatePairs += count;
+        return count;
+    }
+
+    // Called by the narrowphase for every candidate that really overlapped
+    public void countHit() {
+        hits++;
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, x / cellSize));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, y / cellSize));
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getCandidatePairs() {
+        return candidatePairs;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.spacegame;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Index of the sprite frames packed into one atlas image: named sets of
+ * frames, each frame a rectangle of the image.
+ *
+ * Atlases are packed at build time, one per density bucket with every frame
+ * already at its final size, so the game decodes one image instead of a file
+ * per frame and never scales. pack() lays frames out in shelves, tallest
+ * first, with padding between them so filtered draws don't bleed into the
+ * neighbours.
+ *
+ * The index is stored next to the image as "SGA1": magic, atlas width and
+ * height, set count, then per set its name, frame count and each frame's x,
+ * y, width and height.
+ */
+public final class SpriteAtlas {
+
+    private static final int MAGIC = 0x53474131; // "SGA1"
+
+    // Density buckets the atlases are built for, and their dots per inch
+    public static final String[] DENSITIES = {"mdpi", "hdpi", "xhdpi", "xxhdpi", "xxxhdpi"};
+    public static final int[] DENSITY_DPI = {160, 240, 320, 480, 640};
+
+    // Sizes in the sprite list are for this density
+    public static final int BASE_DPI = 160;
+
+    // Asset paths of a bucket's atlas image and index
+    public static String imagePath(String density) {
+        return "atlas/" + density + "/sprites.png";
+    }
+
+    public static String indexPath(String density) {
+        return "atlas/" + density + "/sprites.atlas";
+    }
+
+    // Bucket for a screen density: the smallest one at least as dense, so
+    // frames are only ever scaled down when drawn
+    public static int pickDensity(int dpi) {
+        for (int i = 0; i < DENSITY_DPI.length; i++) {
+            if (DENSITY_DPI[i] >= dpi) {
+                return i;
+            }
+        }
+        return DENSITY_DPI.length - 1;
+    }
+
+    private final int width;
+    private final int height;
+    private final String[] setNames;
+    private final int[] firstFrame; // per set, index into the frame arrays
+    private final int[] frameCount;
+    private final int[] frameX;
+    private final int[] frameY;
+    private final int[] frameWidth;
+    private final int[] frameHeight;
+
+    private SpriteAtlas(int width, int height, String[] setNames, int[] frameCount,
+                        int[] frameX, int[] frameY, int[] frameWidth, int[] frameHeight) {
+        this.width = width;
+        this.height = height;
+        this.setNames = setNames;
+        this.frameCount = frameCount;
+        this.frameX = frameX;
+        this.frameY = frameY;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        firstFrame = new int[setNames.length];
+        for (int s = 1; s < setNames.length; s++) {
+            firstFrame[s] = firstFrame[s - 1] + frameCount[s - 1];
+        }
+    }
+
+    /**
+     * Lays out the frames of the given sets, widths[s][f] by heights[s][f]
+     * pixels, in an atlas at most maxWidth wide.
+     */
+    public static SpriteAtlas pack(String[] setNames, int[][] widths, int[][] heights,
+                                   int maxWidth, int padding) {
+        int[] frameCount = new int[setNames.length];
+        int total = 0;
+        for (int s = 0; s < setNames.length; s++) {
+            if (widths[s].length == 0 || widths[s].length != heights[s].length) {
+                throw new IllegalArgumentException("Bad frames for sprite set " + setNames[s]);
+            }
+            frameCount[s] = widths[s].length;
+            total += frameCount[s];
+        }
+
+        int[] w = new int[total];
+        int[] h = new int[total];
+        int frame = 0;
+        for (int s = 0; s < setNames.length; s++) {
+            for (int f = 0; f < frameCount[s]; f++, frame++) {
+                w[frame] = widths[s][f];
+                h[frame] = heights[s][f];
+                if (w[frame] <= 0 || h[frame] <= 0 || w[frame] + 2 * padding > maxWidth) {
+                    throw new IllegalArgumentException("Frame " + f + " of sprite set " + setNames[s]
+                            + " is " + w[frame] + "x" + h[frame] + ", doesn't fit an atlas "
+                            + maxWidth + " wide");
+                }
+            }
+        }
+
+        // Tallest first, ties in index order so the layout is stable
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> h[a] != h[b] ? h[b] - h[a] : a - b);
+
+        // Shelves left to right; each shelf is as tall as its first, tallest frame
+        int[] x = new int[total];
+        int[] y = new int[total];
+        int shelfX = padding;
+        int shelfY = padding;
+        int shelfHeight = 0;
+        int usedWidth = 0;
+        for (int i : order) {
+            if (shelfX + w[i] + padding > maxWidth) {
+                shelfY += shelfHeight + padding;
+                shelfX = padding;
+                shelfHeight = 0;
+            }
+            x[i] = shelfX;
+            y[i] = shelfY;
+            shelfX += w[i] + padding;
+            shelfHeight = Math.max(shelfHeight, h[i]);
+            usedWidth = Math.max(usedWidth, shelfX);
+        }
+        return new SpriteAtlas(usedWidth, shelfY + shelfHeight + padding, setNames.clone(),
+                frameCount, x, y, w, h);
+    }
+
+    // Index of the named set, -1 if the atlas doesn't have it
+    public int findSet(String name) {
+        for (int s = 0; s < setNames.length; s++) {
+            if (setNames[s].equals(name)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getSetCount() {
+        return setNames.length;
+    }
+
+    public String getSetName(int set) {
+        return setNames[set];
+    }
+
+    public int getFrameCount(int set) {
+        return frameCount[set];
+    }
+
+    public int getFrameX(int set, int frame) {
+        return frameX[firstFrame[set] + frame];
+    }
+
+    public int getFrameY(int set, int frame) {
+        return frameY[firstFrame[set] + frame];
+    }
+
+    public int getFrameWidth(int set, int frame) {
+        return frameWidth[firstFrame[set] + frame];
+    }
+
+    public int getFrameHeight(int set, int frame) {
+        return frameHeight[firstFrame[set] + frame];
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(width);
+        data.writeShort(height);
+        data.writeShort(setNames.length);
+        for (int s = 0; s < setNames.length; s++) {
+            data.writeUTF(setNames[s]);
+            data.writeShort(frameCount[s]);
+            for (int f = 0; f < frameCount[s]; f++) {
+                data.writeShort(getFrameX(s, f));
+                data.writeShort(getFrameY(s, f));
+                data.writeShort(getFrameWidth(s, f));
+                data.writeShort(getFrameHeight(s, f));
+            }
+        }
+        data.flush();
+    }
+
+    public static SpriteAtlas read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a sprite atlas index");
+        }
+        int width = data.readUnsignedShort();
+        int height = data.readUnsignedShort();
+        int setCount = data.readUnsignedShort();
+        String[] setNames = new String[setCount];
+        int[] frameCount = new int[setCount];
+        int[][] rects = new int[setCount][];
+        int total = 0;
+        for (int s = 0; s < setCount; s++) {
+            setNames[s] = data.readUTF();
+            frameCount[s] = data.readUnsignedShort();
+            rects[s] = new int[frameCount[s] * 4];
+            for (int i = 0; i < rects[s].length; i++) {
+                rects[s][i] = data.readUnsignedShort();
+            }
+            total += frameCount[s];
+        }
+
+        int[] x = new int[total];
+        int[] y = new int[total];
+        int[] w = new int[total];
+        int[] h = new int[total];
+        int frame = 0;
+        for (int s = 0; s < setCount; s++) {
+            for (int f = 0; f < frameCount[s]; f++, frame++) {
+                x[frame] = rects[s][f * 4];
+                y[frame] = rects[s][f * 4 + 1];
+                w[frame] = rects[s][f * 4 + 2];
+                h[frame] = rects[s][f * 4 + 3];
+                if (x[frame] + w[frame] > width || y[frame] + h[frame] > height) {
+                    throw new IOException("Frame " + f + " of sprite set " + setNames[s]
+                            + " lies outside the atlas");
+                }
+            }
+        }
+        return new SpriteAtlas(width, height, setNames, frameCount, x, y, w, h);
+    }
+}
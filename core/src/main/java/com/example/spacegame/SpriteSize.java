@@ -0,0 +1,20 @@
+package com.example.spacegame;
+
+// Width and height of a sprite in pixels, as used for collision boxes
+public final class SpriteSize {
+    private final int width;
+    private final int height;
+
+    public SpriteSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
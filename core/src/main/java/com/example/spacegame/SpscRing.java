@@ -0,0 +1,79 @@
+package com.example.spacegame;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Positions of a single-producer, single-consumer ring whose slots live in
+ * the owner's own primitive arrays, one array per field.
+ *
+ * The producer claims a slot, fills the owner's arrays at that index and
+ * publishes it; the consumer reads slots from head() up to tail() and
+ * releases them. Publishing and releasing are ordered stores, so whatever
+ * was written to a slot before publish() is visible to the consumer once it
+ * has read tail(), and a slot is only reused after the consumer released
+ * it. Head and tail are the only shared state; each is written by one thread.
+ */
+final class SpscRing {
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(); // next slot to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, written by the producer
+
+    private volatile long overflowCount;
+
+    // capacity must be a power of two
+    SpscRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+    }
+
+    // Producer only; index of the slot to fill, or -1, counted as an
+    // overflow, if the consumer has fallen a whole ring behind
+    int claim() {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            overflowCount++;
+            return -1;
+        }
+        return (int) t & mask;
+    }
+
+    // Producer only; hands the claimed slot to the consumer
+    void publish() {
+        tail.lazySet(tail.get() + 1);
+    }
+
+    // Consumer only; position of the oldest unread slot
+    long head() {
+        return head.get();
+    }
+
+    // Consumer only; position after the newest published slot
+    long tail() {
+        return tail.get();
+    }
+
+    int index(long position) {
+        return (int) position & mask;
+    }
+
+    // Consumer only; frees every slot before position for the producer
+    void release(long position) {
+        head.lazySet(position);
+    }
+
+    // Consumer only; discards everything published so far
+    void clear() {
+        head.lazySet(tail.get());
+    }
+
+    long getOverflowCount() {
+        return overflowCount;
+    }
+
+    void resetOverflowCount() {
+        overflowCount = 0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.spacegame;
+
+import java.util.Random;
+
+/**
+ * Procedural, seeded layout of the scrolling space background.
+ *
+ * The background is one small opaque tile repeated over the screen and
+ * scrolled slowly, plus a few parallax layers of individual stars that scroll
+ * faster the nearer they are. Stars are drawn as tiny sprites, so the
+ * transparent layers add a few hundred pixels of fill instead of whole
+ * screens of overdraw.
+ *
+ * The tile is sized to fit the memory budget: it starts at MAX_TILE_SIZE and
+ * halves until the tile (2 bytes per pixel, RGB_565) plus the star sprites
+ * (4 bytes per pixel, they need alpha) fit.
+ *
+ * Renderers paint the tile from getTileStarCount() and getTileStarX/Y/Radius/
+ * Brightness(i), size the star sprites with getStarDiameter(), then call
+ * record() every frame.
+ */
+public class Starfield {
+    public static final int MAX_TILE_SIZE = 512;
+    public static final int MIN_TILE_SIZE = 32;
+    public static final int TILE_BYTES_PER_PIXEL = 2;
+    public static final int STAR_BYTES_PER_PIXEL = 4;
+
+    // Stars baked into the tile
+    private static final int TILE_STAR_DENSITY = 100; // stars per 1024 x 1024 pixels
+    private static final float TILE_SPEED = 6f; // pixels per second
+
+    // Parallax layers, far to near; the star sprite frame is the layer index
+    private static final int[] LAYER_STAR_COUNTS = {48, 24, 10};
+    private static final int[] STAR_DIAMETERS = {3, 5, 8};
+    private static final float[] LAYER_SPEEDS = {15f, 40f, 90f}; // pixels per second
+
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int tileSize;
+
+    // Tile stars, positions within the tile
+    private final int[] tileStarX;
+    private final int[] tileStarY;
+    private final int[] tileStarRadius;
+    private final int[] tileStarBrightness;
+
+    // Parallax stars, positions on a screen-sized field that wraps vertically
+    private final int[][] starX = new int[LAYER_STAR_COUNTS.length][];
+    private final int[][] starY = new int[LAYER_STAR_COUNTS.length][];
+
+    public Starfield(long seed, int screenWidth, int screenHeight, long memoryBudgetBytes) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+
+        long starBytes = getStarSpriteBytes();
+        int size = MAX_TILE_SIZE;
+        while (size > MIN_TILE_SIZE && (long) size * size * TILE_BYTES_PER_PIXEL + starBytes > memoryBudgetBytes) {
+            size /= 2;
+        }
+        tileSize = size;
+
+        Random random = new Random(seed);
+        int tileStarCount = Math.max(1, TILE_STAR_DENSITY * size * size / (1024 * 1024));
+        tileStarX = new int[tileStarCount];
+        tileStarY = new int[tileStarCount];
+        tileStarRadius = new int[tileStarCount];
+        tileStarBrightness = new int[tileStarCount];
+        for (int i = 0; i < tileStarCount; i++) {
+            tileStarX[i] = random.nextInt(size);
+            tileStarY[i] = random.nextInt(size);
+            tileStarRadius[i] = random.nextInt(10) == 0 ? 2 : 1;
+            tileStarBrightness[i] = 60 + random.nextInt(120);
+        }
+
+        for (int layer = 0; layer < LAYER_STAR_COUNTS.length; layer++) {
+            int count = LAYER_STAR_COUNTS[layer];
+            starX[layer] = new int[count];
+            starY[layer] = new int[count];
+            for (int i = 0; i < count; i++) {
+                starX[layer][i] = random.nextInt(screenWidth);
+                starY[layer][i] = random.nextInt(screenHeight);
+            }
+        }
+    }
+
+    // Records the tiles and stars, scrolled to timeMillis of game time, on the background layer
+    public void record(float timeMillis, RenderCommandBuffer commands) {
+        record(timeMillis, LAYER_STAR_COUNTS.length, commands);
+    }
+
+    // Same with only the given number of parallax layers, nearest first; the far layers
+    // have the most stars and move the least, so they're the first to go
+    public void record(float timeMillis, int starLayers, RenderCommandBuffer commands) {
+        float seconds = timeMillis / 1000f;
+
+        // Tiles, shifted down by the scroll offset and starting one row above the screen
+        float tileOffset = (seconds * TILE_SPEED) % tileSize;
+        for (float y = tileOffset - tileSize; y < screenHeight; y += tileSize) {
+            for (int x = 0; x < screenWidth; x += tileSize) {
+                commands.add(SceneRecorder.SPRITE_BACKGROUND, 0, x, y, SceneRecorder.LAYER_BACKGROUND);
+            }
+        }
+
+        // Stars, wrapping from just below the screen to just above it
+        int firstLayer = Math.max(0, LAYER_STAR_COUNTS.length - starLayers);
+        for (int l = firstLayer; l < LAYER_STAR_COUNTS.length; l++) {
+            float offset = seconds * LAYER_SPEEDS[l];
+            int diameter = STAR_DIAMETERS[l];
+            int period = screenHeight + diameter;
+            int[] xs = starX[l];
+            int[] ys = starY[l];
+            for (int i = 0; i < xs.length; i++) {
+                float y = (ys[i] + offset) % period - diameter;
+                commands.add(SceneRecorder.SPRITE_STAR, l, xs[i], y, SceneRecorder.LAYER_BACKGROUND);
+            }
+        }
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTileStarCount() {
+        return tileStarX.length;
+    }
+
+    public int getTileStarX(int i) {
+        return tileStarX[i];
+    }
+
+    public int getTileStarY(int i) {
+        return tileStarY[i];
+    }
+
+    public int getTileStarRadius(int i) {
+        return tileStarRadius[i];
+    }
+
+    // 0-255
+    public int getTileStarBrightness(int i) {
+        return tileStarBrightness[i];
+    }
+
+    public static int getLayerCount() {
+        return LAYER_STAR_COUNTS.length;
+    }
+
+    // Diameter of the star sprite for a parallax layer
+    public static int getStarDiameter(int layer) {
+        return STAR_DIAMETERS[layer];
+    }
+
+    // Bytes taken by the tile and star bitmaps
+    public long getResidentBytes() {
+        return (long) tileSize * tileSize * TILE_BYTES_PER_PIXEL + getStarSpriteBytes();
+    }
+
+    private static long getStarSpriteBytes() {
+        long bytes = 0;
+        for (int diameter : STAR_DIAMETERS) {
+            bytes += (long) diameter * diameter * STAR_BYTES_PER_PIXEL;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.spacegame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timeline of app startup: how long each phase took, when the first frame of
+ * any kind was shown and when the first interactive frame (the first one
+ * drawn from the game world) was. All times are System.nanoTime() values,
+ * reported relative to the start the trace was created with, normally the
+ * process start.
+ *
+ * Phases may run in parallel on different threads, so recording is
+ * synchronized; startup runs once, so it's also allowed to allocate.
+ */
+public class StartupTrace {
+    private final long startNanos;
+
+    private final List<String> phaseNames = new ArrayList<>();
+    private final List<long[]> phaseTimes = new ArrayList<>(); // {start, end}
+
+    private volatile long firstFrameNanos;
+    private volatile long interactiveNanos;
+
+    public StartupTrace(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public synchronized void record(String phase, long phaseStartNanos, long phaseEndNanos) {
+        phaseNames.add(phase);
+        phaseTimes.add(new long[] {phaseStartNanos, phaseEndNanos});
+    }
+
+    // Only the first call counts
+    public synchronized void markFirstFrame(long nanos) {
+        if (firstFrameNanos == 0) {
+            firstFrameNanos = nanos;
+        }
+    }
+
+    // Only the first call counts; returns true if this was it
+    public synchronized boolean markInteractive(long nanos) {
+        if (interactiveNanos != 0) {
+            return false;
+        }
+        interactiveNanos = nanos;
+        if (firstFrameNanos == 0) {
+            firstFrameNanos = nanos;
+        }
+        return true;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    // Start to the first frame on screen, -1 until there is one
+    public long getFirstFrameNanos() {
+        long time = firstFrameNanos;
+        return time == 0 ? -1 : time - startNanos;
+    }
+
+    // Cold start: start to the first interactive frame, -1 until there is one
+    public long getColdStartNanos() {
+        long time = interactiveNanos;
+        return time == 0 ? -1 : time - startNanos;
+    }
+
+    public synchronized int getPhaseCount() {
+        return phaseNames.size();
+    }
+
+    public synchronized String getPhaseName(int index) {
+        return phaseNames.get(index);
+    }
+
+    // Phase start relative to the trace start
+    public synchronized long getPhaseOffsetNanos(int index) {
+        return phaseTimes.get(index)[0] - startNanos;
+    }
+
+    public synchronized long getPhaseDurationNanos(int index) {
+        long[] times = phaseTimes.get(index);
+        return times[1] - times[0];
+    }
+
+    // Writes one line per phase, in the order they were recorded, times in milliseconds
+    public synchronized void dump(StringBuilder out) {
+        out.append("startup phase start duration (ms)\n");
+        for (int i = 0; i < phaseNames.size(); i++) {
+            out.append(phaseNames.get(i))
+                    .append(' ').append(getPhaseOffsetNanos(i) / 1_000_000)
+                    .append(' ').append(getPhaseDurationNanos(i) / 1_000_000)
+                    .append('\n');
+        }
+        out.append("first frame ").append(toMillis(getFirstFrameNanos()))
+                .append(", interactive ").append(toMillis(getColdStartNanos())).append('\n');
+    }
+
+    private static String toMillis(long nanos) {
+        return nanos < 0 ? "-" : Long.toString(nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.spacegame;
+
+/**
+ * Reusable, growable char buffer for text drawn every frame.
+ *
+ * Unlike string concatenation, appending text and numbers writes straight into
+ * the buffer, so formatting a HUD or overlay line allocates nothing once the
+ * buffer is large enough. Draw it with Canvas.drawText(getChars(), 0, length(), ...).
+ */
+public final class TextLine {
+    // Long.MIN_VALUE has 20 characters
+    private static final int MAX_LONG_CHARS = 20;
+
+    private char[] chars;
+    private int length;
+
+    public TextLine() {
+        this(32);
+    }
+
+    public TextLine(int capacity) {
+        chars = new char[Math.max(capacity, MAX_LONG_CHARS)];
+    }
+
+    public TextLine clear() {
+        length = 0;
+        return this;
+    }
+
+    public TextLine append(char c) {
+        ensureCapacity(length + 1);
+        chars[length++] = c;
+        return this;
+    }
+
+    public TextLine append(String text) {
+        int textLength = text.length();
+        ensureCapacity(length + textLength);
+        text.getChars(0, textLength, chars, length);
+        length += textLength;
+        return this;
+    }
+
+    public TextLine append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+
+        ensureCapacity(length + MAX_LONG_CHARS);
+        if (value < 0) {
+            chars[length++] = '-';
+            value = -value;
+        }
+
+        // Write the digits backwards, then reverse them in place
+        int start = length;
+        do {
+            chars[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = chars[i];
+            chars[i] = chars[j];
+            chars[j] = c;
+        }
+        return this;
+    }
+
+    // Pads with spaces up to column
+    public TextLine padTo(int column) {
+        while (length < column) {
+            append(' ');
+        }
+        return this;
+    }
+
+    public char[] getChars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > chars.length) {
+            char[] grown = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.spacegame;
+
+/**
+ * Smooths timestamped tilt samples.
+ *
+ * Plain mode is an exponential low-pass whose gain follows the gap between
+ * samples (a = dt / (tau + dt)), so batched or irregular sensor delivery
+ * smooths the same as a steady stream. Predictive mode also tracks the rate
+ * of change (an alpha-beta filter) and extrapolates to the time asked for,
+ * which hides most of the lag a low-pass adds; the extrapolation is capped
+ * at maxPredictionNanos so a stalled sensor doesn't fling the ship.
+ */
+public class TiltFilter {
+    private final long timeConstantNanos;
+    private final boolean predictive;
+    private final long maxPredictionNanos;
+
+    private boolean primed;
+    private float value;
+    private float velocity; // units per second, predictive mode only
+    private long lastTime;
+
+    public TiltFilter(long timeConstantNanos, boolean predictive, long maxPredictionNanos) {
+        if (timeConstantNanos < 0 || maxPredictionNanos < 0) {
+            throw new IllegalArgumentException("Negative filter time");
+        }
+        this.timeConstantNanos = timeConstantNanos;
+        this.predictive = predictive;
+        this.maxPredictionNanos = maxPredictionNanos;
+    }
+
+    // Samples must arrive in timestamp order; out-of-order ones are ignored
+    public void add(float sample, long timeNanos) {
+        if (!primed) {
+            value = sample;
+            velocity = 0f;
+            lastTime = timeNanos;
+            primed = true;
+            return;
+        }
+
+        long dt = timeNanos - lastTime;
+        if (dt <= 0) {
+            return;
+        }
+        float a = (float) dt / (timeConstantNanos + dt);
+        float seconds = dt / 1e9f;
+
+        if (predictive) {
+            float predicted = value + velocity * seconds;
+            float residual = sample - predicted;
+            float b = a * a / (2f - a);
+            value = predicted + a * residual;
+            velocity += b * residual / seconds;
+        } else {
+            value += a * (sample - value);
+        }
+        lastTime = timeNanos;
+    }
+
+    // Filtered value at timeNanos; 0 until the first sample arrives
+    public float valueAt(long timeNanos) {
+        if (!primed) {
+            return 0f;
+        }
+        if (!predictive) {
+            return value;
+        }
+        long ahead = Math.min(Math.max(timeNanos - lastTime, 0), maxPredictionNanos);
+        return value + velocity * (ahead / 1e9f);
+    }
+
+    public boolean isPredictive() {
+        return predictive;
+    }
+
+    public void reset() {
+        primed = false;
+        value = 0f;
+        velocity = 0f;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.spacegame;
+
+/**
+ * Single-producer, single-consumer ring buffer of touch events.
+ *
+ * The UI thread offers each tap as a primitive record (x, y, event time) and
+ * the update thread polls them at the start of a tick, so input never touches
+ * game state from the UI thread and nothing is allocated per event. The
+ * events live in parallel arrays indexed by an SpscRing.
+ */
+public class TouchQueue {
+    private final SpscRing ring;
+    private final float[] xs;
+    private final float[] ys;
+    private final long[] times;
+
+    // Event taken by the last successful poll()
+    private float polledX;
+    private float polledY;
+    private long polledTime;
+
+    // capacity must be a power of two
+    public TouchQueue(int capacity) {
+        ring = new SpscRing(capacity);
+        xs = new float[capacity];
+        ys = new float[capacity];
+        times = new long[capacity];
+    }
+
+    // Producer only; returns false, dropping the event, if the queue is full
+    public boolean offer(float x, float y, long timeNanos) {
+        int index = ring.claim();
+        if (index < 0) {
+            return false;
+        }
+
+        xs[index] = x;
+        ys[index] = y;
+        times[index] = timeNanos;
+        ring.publish();
+        return true;
+    }
+
+    // Consumer only; takes the oldest event, read it with the getPolled methods
+    public boolean poll() {
+        long h = ring.head();
+        if (h == ring.tail()) {
+            return false;
+        }
+
+        int index = ring.index(h);
+        polledX = xs[index];
+        polledY = ys[index];
+        polledTime = times[index];
+        ring.release(h + 1);
+        return true;
+    }
+
+    // Consumer only; discards everything queued so far
+    public void clear() {
+        ring.clear();
+    }
+
+    public float getPolledX() {
+        return polledX;
+    }
+
+    public float getPolledY() {
+        return polledY;
+    }
+
+    public long getPolledTime() {
+        return polledTime;
+    }
+
+    public long getOverflowCount() {
+        return ring.getOverflowCount();
+    }
+}
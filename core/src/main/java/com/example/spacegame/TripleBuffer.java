@@ -0,0 +1,84 @@
+package com.example.spacegame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing the latest value from one writer thread to
+ * one reader thread.
+ *
+ * The writer fills getWriteBuffer() and calls publish(); the reader calls
+ * acquire() and gets the newest published buffer. Each side owns one buffer
+ * and the third is swapped through an AtomicInteger, so neither side ever
+ * waits for the other and the reader never sees a buffer being written.
+ *
+ * A published buffer replaced before the reader took it counts as dropped; an
+ * acquire() with nothing new published returns the previous buffer again and
+ * counts as duplicated.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] buffers;
+
+    // Index of the shared buffer, plus FRESH when it's been published but not acquired
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // owned by the writer
+    private int front = 2;  // owned by the reader
+
+    // Statistics, each written by one thread only
+    private volatile long publishedCount;
+    private volatile long droppedCount;
+    private volatile long duplicatedCount;
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[]{first, second, third};
+    }
+
+    // Writer: the buffer to fill before the next publish()
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    // Writer: makes the write buffer the newest value and takes a free one to write next
+    public void publish() {
+        int previous = middle.getAndSet(back | FRESH);
+        if ((previous & FRESH) != 0) {
+            droppedCount++;
+        }
+        back = previous & INDEX_MASK;
+        publishedCount++;
+    }
+
+    // Reader: the newest published buffer, valid until the next acquire()
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            // The writer can only replace the middle with a fresher buffer, never clear FRESH
+            front = middle.getAndSet(front) & INDEX_MASK;
+        } else {
+            duplicatedCount++;
+        }
+        return (T) buffers[front];
+    }
+
+    // Only while neither thread is using the buffer
+    public void resetStatistics() {
+        publishedCount = 0;
+        droppedCount = 0;
+        duplicatedCount = 0;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getDuplicatedCount() {
+        return duplicatedCount;
+    }
+}
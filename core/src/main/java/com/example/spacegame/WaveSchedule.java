@@ -0,0 +1,321 @@
+package com.example.spacegame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable stone spawning plan, parsed once from a compact text asset.
+ *
+ * A schedule is a list of waves played in order; the last one lasts until
+ * the game restarts. Each wave is a block of one-line directives, anything
+ * after '#' is a comment:
+ *
+ *     wave   <duration ms>                     starts a wave, 0 = until restart
+ *     rate   <ms>:<spawns/s> [<ms>:<spawns/s>]  spawn rate curve, linear between
+ *                                              points, flat outside them
+ *     burst  <min> <max>                       stones per spawn
+ *     health <weight> [<weight> ...]           relative odds of health 1, 2, ...
+ *     speed  <base> <per health> <jitter>      pixels per tick: base - per health
+ *                                              * health + random 0..jitter
+ *
+ * Directives left out keep the CLASSIC values, one stone every two seconds
+ * with health 1 to 3, faster the weaker it is. Random numbers are only drawn
+ * for choices that have more than one outcome, so CLASSIC spawns exactly the
+ * stones the original hard-coded spawner did for the same seed, in the same
+ * order. They come every two seconds on the dot, where the original spawner
+ * came a tick late each time and drifted.
+ */
+public final class WaveSchedule {
+
+    public static final WaveSchedule CLASSIC = parse(
+            "# One stone every two seconds, health 1 to 3, faster when weaker\n"
+                    + "wave 0\n"
+                    + "rate 0:0.5\n"
+                    + "burst 1 1\n"
+                    + "health 1 1 1\n"
+                    + "speed 15 1 0\n");
+
+    // Ramps over a minute to thousands of slow stones on screen, for load testing
+    public static final WaveSchedule STRESS = parse(
+            "# Stress: ramp from 2 to 60 spawns/s of 4-8 slow stones over a minute\n"
+                    + "wave 0\n"
+                    + "rate 0:2 60000:60\n"
+                    + "burst 4 8\n"
+                    + "health 1 1 1\n"
+                    + "speed 3 0 2\n");
+
+    private final String source;
+
+    // Per wave
+    private final long[] durations;
+    private final int[] rateStart; // first rate point of the wave in rateTimes/rateValues
+    private final int[] rateCount;
+    private final int[] burstMin;
+    private final int[] burstMax;
+    private final int[] healthStart; // first weight of the wave in healthWeights
+    private final int[] healthCount;
+    private final int[] healthTotal;
+    private final int[] speedBase;
+    private final int[] speedPerHealth;
+    private final int[] speedJitter;
+
+    // Shared by all waves
+    private final long[] rateTimes;
+    private final float[] rateValues;
+    private final int[] healthWeights;
+
+    private WaveSchedule(String source, List<Wave> waves) {
+        this.source = source;
+        int count = waves.size();
+        durations = new long[count];
+        rateStart = new int[count];
+        rateCount = new int[count];
+        burstMin = new int[count];
+        burstMax = new int[count];
+        healthStart = new int[count];
+        healthCount = new int[count];
+        healthTotal = new int[count];
+        speedBase = new int[count];
+        speedPerHealth = new int[count];
+        speedJitter = new int[count];
+
+        int rates = 0;
+        int weights = 0;
+        for (Wave wave : waves) {
+            rates += wave.rateTimes.length;
+            weights += wave.healthWeights.length;
+        }
+        rateTimes = new long[rates];
+        rateValues = new float[rates];
+        healthWeights = new int[weights];
+
+        rates = 0;
+        weights = 0;
+        for (int i = 0; i < count; i++) {
+            Wave wave = waves.get(i);
+            durations[i] = wave.duration;
+            rateStart[i] = rates;
+            rateCount[i] = wave.rateTimes.length;
+            System.arraycopy(wave.rateTimes, 0, rateTimes, rates, wave.rateTimes.length);
+            System.arraycopy(wave.rateValues, 0, rateValues, rates, wave.rateValues.length);
+            rates += wave.rateTimes.length;
+            burstMin[i] = wave.burstMin;
+            burstMax[i] = wave.burstMax;
+            healthStart[i] = weights;
+            healthCount[i] = wave.healthWeights.length;
+            for (int weight : wave.healthWeights) {
+                healthWeights[weights++] = weight;
+                healthTotal[i] += weight;
+            }
+            speedBase[i] = wave.speedBase;
+            speedPerHealth[i] = wave.speedPerHealth;
+            speedJitter[i] = wave.speedJitter;
+        }
+    }
+
+    // Throws IllegalArgumentException naming the line of the first error
+    public static WaveSchedule parse(String source) {
+        List<Wave> waves = new ArrayList<>();
+        Wave wave = null;
+        String[] lines = source.split("\n", -1);
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n];
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] words = line.split("\\s+");
+            try {
+                if (words[0].equals("wave")) {
+                    expectArguments(words, 1, 1);
+                    wave = new Wave(parseLong(words[1], 0));
+                    waves.add(wave);
+                    continue;
+                }
+                if (wave == null) {
+                    throw new IllegalArgumentException("'" + words[0] + "' before the first wave");
+                }
+                switch (words[0]) {
+                    case "rate":
+                        wave.parseRate(words);
+                        break;
+                    case "burst":
+                        expectArguments(words, 2, 2);
+                        wave.burstMin = parseInt(words[1], 1);
+                        wave.burstMax = parseInt(words[2], wave.burstMin);
+                        break;
+                    case "health":
+                        expectArguments(words, 1, Integer.MAX_VALUE);
+                        wave.parseHealth(words);
+                        break;
+                    case "speed":
+                        expectArguments(words, 3, 3);
+                        wave.speedBase = parseInt(words[1], 1);
+                        wave.speedPerHealth = parseInt(words[2], 0);
+                        wave.speedJitter = parseInt(words[3], 0);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown directive '" + words[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Wave schedule line " + (n + 1) + ": "
+                        + e.getMessage(), e);
+            }
+        }
+        if (waves.isEmpty()) {
+            throw new IllegalArgumentException("Wave schedule has no waves");
+        }
+        for (int i = 0; i < waves.size(); i++) {
+            waves.get(i).validate(i + 1);
+        }
+        return new WaveSchedule(source, waves);
+    }
+
+    private static void expectArguments(String[] words, int min, int max) {
+        int count = words.length - 1;
+        if (count < min || count > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for '" + words[0] + "'");
+        }
+    }
+
+    private static long parseLong(String word, long min) {
+        long value = Long.parseLong(word);
+        if (value < min) {
+            throw new IllegalArgumentException(word + " is less than " + min);
+        }
+        return value;
+    }
+
+    private static int parseInt(String word, int min) {
+        return (int) Math.min(parseLong(word, min), Integer.MAX_VALUE);
+    }
+
+    // One wave while parsing, starting with the classic values
+    private static final class Wave {
+        final long duration;
+        long[] rateTimes = {0};
+        float[] rateValues = {0.5f};
+        int burstMin = 1;
+        int burstMax = 1;
+        int[] healthWeights = {1, 1, 1};
+        int speedBase = 15;
+        int speedPerHealth = 1;
+        int speedJitter = 0;
+
+        Wave(long duration) {
+            this.duration = duration;
+        }
+
+        void parseRate(String[] words) {
+            expectArguments(words, 1, Integer.MAX_VALUE);
+            int count = words.length - 1;
+            rateTimes = new long[count];
+            rateValues = new float[count];
+            for (int i = 0; i < count; i++) {
+                String point = words[i + 1];
+                int colon = point.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("Rate point '" + point + "' isn't <ms>:<spawns/s>");
+                }
+                rateTimes[i] = parseLong(point.substring(0, colon), i == 0 ? 0 : rateTimes[i - 1]);
+                rateValues[i] = Float.parseFloat(point.substring(colon + 1));
+                if (!(rateValues[i] >= 0f) || Float.isInfinite(rateValues[i])) {
+                    throw new IllegalArgumentException("Bad spawn rate " + point);
+                }
+            }
+        }
+
+        void parseHealth(String[] words) {
+            healthWeights = new int[words.length - 1];
+            int total = 0;
+            for (int i = 0; i < healthWeights.length; i++) {
+                healthWeights[i] = parseInt(words[i + 1], 0);
+                total += healthWeights[i];
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Health weights are all 0");
+            }
+        }
+
+        // Every stone the wave can spawn must move
+        void validate(int number) {
+            if (speedBase - speedPerHealth * healthWeights.length < 1) {
+                throw new IllegalArgumentException("Wave schedule wave " + number
+                        + ": speed drops below 1 pixel per tick at health " + healthWeights.length);
+            }
+        }
+    }
+
+    // The text the schedule was parsed from, e.g. to store with a replay
+    public String getSource() {
+        return source;
+    }
+
+    public int getWaveCount() {
+        return durations.length;
+    }
+
+    // Wave length in milliseconds, 0 for a wave that lasts until restart
+    public long getDuration(int wave) {
+        return durations[wave];
+    }
+
+    // Spawns per second at timeMillis into the wave
+    public float getRate(int wave, long timeMillis) {
+        int first = rateStart[wave];
+        int last = first + rateCount[wave] - 1;
+        if (timeMillis <= rateTimes[first]) {
+            return rateValues[first];
+        }
+        for (int i = first; i < last; i++) {
+            if (timeMillis < rateTimes[i + 1]) {
+                float t = (float) (timeMillis - rateTimes[i]) / (rateTimes[i + 1] - rateTimes[i]);
+                return rateValues[i] + t * (rateValues[i + 1] - rateValues[i]);
+            }
+        }
+        return rateValues[last];
+    }
+
+    public int getBurstMin(int wave) {
+        return burstMin[wave];
+    }
+
+    public int getBurstMax(int wave) {
+        return burstMax[wave];
+    }
+
+    public int getMaxHealth(int wave) {
+        return healthCount[wave];
+    }
+
+    // Health for a uniform draw in [0, getHealthTotal(wave))
+    public int pickHealth(int wave, int draw) {
+        int index = healthStart[wave];
+        int end = index + healthCount[wave];
+        for (; index < end - 1; index++) {
+            draw -= healthWeights[index];
+            if (draw < 0) {
+                break;
+            }
+        }
+        return index - healthStart[wave] + 1;
+    }
+
+    public int getHealthTotal(int wave) {
+        return healthTotal[wave];
+    }
+
+    // Speed before jitter for a stone of the given health
+    public int getSpeed(int wave, int health) {
+        return speedBase[wave] - speedPerHealth[wave] * health;
+    }
+
+    public int getSpeedJitter(int wave) {
+        return speedJitter[wave];
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.spacegame;
+
+import java.util.Random;
+
+/**
+ * Plays a WaveSchedule in simulation time for one GameWorld: moves through
+ * the waves, decides when stones spawn and how many, and picks their health
+ * and speed. Every random choice comes from the world's Random, so a seed
+ * and schedule always give the same stones.
+ */
+public class WaveScheduler {
+    private final WaveSchedule schedule;
+
+    private int wave;
+    private long waveStartTime;
+    // Time the last spawn was due, not the tick it happened on, so the part
+    // of a tick past the due time counts toward the next spawn
+    private double lastSpawnTime;
+
+    public WaveScheduler(WaveSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    // Starts over from the first wave at now (simulation milliseconds)
+    public void reset(long now) {
+        wave = 0;
+        waveStartTime = now;
+        lastSpawnTime = now;
+    }
+
+    // Number of stones to spawn at now, 0 on most ticks. A spawn is due every
+    // interval at the current rate after the last one was due; when the rate
+    // is faster than the ticks, one tick spawns every burst that came due
+    public int update(long now, Random random) {
+        // Move past finished waves; the last one never ends
+        while (wave < schedule.getWaveCount() - 1 && schedule.getDuration(wave) > 0
+                && now - waveStartTime >= schedule.getDuration(wave)) {
+            waveStartTime += schedule.getDuration(wave);
+            wave++;
+        }
+
+        float rate = schedule.getRate(wave, now - waveStartTime);
+        if (rate <= 0f) {
+            // Nothing builds up while spawning is off
+            lastSpawnTime = now;
+            return 0;
+        }
+
+        double interval = 1000.0 / rate;
+        int min = schedule.getBurstMin(wave);
+        int max = schedule.getBurstMax(wave);
+        int count = 0;
+        while (now - lastSpawnTime >= interval) {
+            lastSpawnTime += interval;
+            count += min == max ? min : min + random.nextInt(max - min + 1);
+        }
+        return count;
+    }
+
+    public int pickHealth(Random random) {
+        if (schedule.getMaxHealth(wave) == 1) {
+            return 1;
+        }
+        return schedule.pickHealth(wave, random.nextInt(schedule.getHealthTotal(wave)));
+    }
+
+    public int pickSpeed(int health, Random random) {
+        int speed = schedule.getSpeed(wave, health);
+        int jitter = schedule.getSpeedJitter(wave);
+        return jitter == 0 ? speed : speed + random.nextInt(jitter + 1);
+    }
+
+    public long hash() {
+        long hash = wave;
+        hash = 31 * hash + waveStartTime;
+        hash = 31 * hash + Double.doubleToLongBits(lastSpawnTime);
+        return hash;
+    }
+
+    public WaveSchedule getSchedule() {
+        return schedule;
+    }
+
+    public int getWave() {
+        return wave;
+    }
+}
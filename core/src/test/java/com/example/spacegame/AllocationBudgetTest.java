@@ -0,0 +1,103 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives the game logic through a scripted session and fails when a workload
+ * allocates more per tick than allocation-budgets.properties allows.
+ */
+public class AllocationBudgetTest {
+
+    private static GameWorld newWorld() {
+        return new GameWorld(1080, 2400, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 42);
+    }
+
+    // Sweeps the tilt back and forth, fires in bursts and restarts after game over
+    private static void script(GameWorld world, GameInput input, int tick) {
+        float acceleration = (tick % 240) / 60f - 2f;
+        int shots = tick % 15 == 0 ? 3 : 0;
+        input.set(acceleration, shots, world.isGameOver() && tick % 120 == 0);
+    }
+
+    @Test
+    public void tickStaysWithinBudget() {
+        GameWorld world = newWorld();
+        GameInput input = new GameInput();
+        AllocationHarness.assertWithinBudget("tick", tick -> {
+            script(world, input, tick);
+            world.tick(input);
+        });
+    }
+
+    @Test
+    public void snapshotHandoffStaysWithinBudget() {
+        GameWorld world = newWorld();
+        GameInput input = new GameInput();
+        TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(new RenderSnapshot(world),
+                new RenderSnapshot(world), new RenderSnapshot(world));
+        AllocationHarness.assertWithinBudget("snapshot", tick -> {
+            script(world, input, tick);
+            world.tick(input);
+            snapshots.getWriteBuffer().copyFrom(world, tick);
+            snapshots.publish();
+            snapshots.acquire();
+        });
+    }
+
+    @Test
+    public void renderStaysWithinBudget() {
+        GameWorld world = newWorld();
+        GameInput input = new GameInput();
+        RenderSnapshot snapshot = new RenderSnapshot(world);
+        Starfield starfield = new Starfield(42, 1080, 2400, 512 * 1024);
+        RenderCommandBuffer commands = new RenderCommandBuffer();
+        CountingRenderBackend backend = new CountingRenderBackend();
+        AllocationHarness.assertWithinBudget("render", tick -> {
+            script(world, input, tick);
+            world.tick(input);
+            snapshot.copyFrom(world, tick);
+            commands.clear();
+            SceneRecorder.record(snapshot, 0.5f, starfield, commands);
+            commands.sort();
+            commands.submit(backend);
+        });
+    }
+
+    @Test
+    public void inputRecordingStaysWithinBudget() {
+        GameWorld world = newWorld();
+        GameInput input = new GameInput();
+        InputRecorder recorder = new InputRecorder(world);
+        AllocationHarness.assertWithinBudget("inputRecording", tick -> {
+            script(world, input, tick);
+            recorder.record(input);
+            world.tick(input);
+        });
+    }
+
+    @Test
+    public void harnessCatchesPerTickGarbage() {
+        List<List<Integer>> sink = new ArrayList<>();
+        AllocationHarness.Workload garbage = tick -> {
+            List<Integer> perTick = new ArrayList<>(64);
+            perTick.add(tick);
+            if (sink.isEmpty()) {
+                sink.add(perTick);
+            } else {
+                sink.set(0, perTick);
+            }
+        };
+
+        long bytes = AllocationHarness.measure(garbage, 1_000, 10_000);
+        assertTrue(bytes / 10_000 >= 64);
+
+        String sites = AllocationHarness.topAllocationSites(garbage, 100_000);
+        assertTrue(sites, sites.contains("AllocationBudgetTest"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.spacegame;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Measures heap bytes allocated by a workload on the calling thread and checks
+ * them against the per-tick budgets in allocation-budgets.properties.
+ *
+ * Allocation is read from the thread's allocation counter, so it's exact and
+ * ignores other threads (JIT, GC). Budgets are whole bytes per tick: the JVM
+ * itself now and then allocates a few hundred bytes on the calling thread
+ * (deoptimization, lazy linking), which is a fraction of a byte per tick and
+ * is rounded away. A run over budget is measured again and the best of
+ * MEASURE_RUNS counts. When a budget is still exceeded the workload is run
+ * under a JFR recording and the failure lists the workload code that
+ * allocated the most.
+ */
+final class AllocationHarness {
+    static final int WARMUP_TICKS = 20_000;
+    static final int MEASURED_TICKS = 20_000;
+    static final int MEASURE_RUNS = 3;
+
+    private static final String BUDGETS = "/allocation-budgets.properties";
+    private static final String PACKAGE = "com.example.spacegame.";
+    private static final int TOP_SITES = 10;
+
+    // One tick of a workload
+    interface Workload {
+        void tick(int tick);
+    }
+
+    private AllocationHarness() {
+    }
+
+    // Fails if workload allocates more bytes per tick than its budget allows
+    static void assertWithinBudget(String name, Workload workload) {
+        long budget = budget(name);
+        long bytes = measure(workload, WARMUP_TICKS, MEASURED_TICKS);
+        for (int run = 1; run < MEASURE_RUNS && bytes / MEASURED_TICKS > budget; run++) {
+            bytes = Math.min(bytes, measure(workload, 0, MEASURED_TICKS));
+        }
+        double bytesPerTick = bytes / (double) MEASURED_TICKS;
+        System.out.printf("%s: %.2f bytes/tick (budget %d)%n", name, bytesPerTick, budget);
+
+        // Whole bytes per tick, see the class comment
+        if (bytes / MEASURED_TICKS > budget) {
+            fail(String.format("%s allocated %.2f bytes/tick, budget is %d%nTop allocation sites:%n%s",
+                    name, bytesPerTick, budget, topAllocationSites(workload, MEASURED_TICKS)));
+        }
+    }
+
+    // Bytes allocated on this thread over the measured ticks, after warming up
+    static long measure(Workload workload, int warmupTicks, int measuredTicks) {
+        for (int i = 0; i < warmupTicks; i++) {
+            workload.tick(i);
+        }
+
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < measuredTicks; i++) {
+            workload.tick(warmupTicks + i);
+        }
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    // Runs the workload under JFR and sums the sampled allocation by site, biggest first.
+    // Only allocations made from workload code count, not the harness's own
+    static String topAllocationSites(Workload workload, int ticks) {
+        Map<String, Long> bytesBySite = new HashMap<>();
+        try {
+            Path file = Files.createTempFile("allocations", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("jdk.ObjectAllocationInNewTLAB").withStackTrace();
+                recording.enable("jdk.ObjectAllocationOutsideTLAB").withStackTrace();
+                recording.start();
+                for (int i = 0; i < ticks; i++) {
+                    workload.tick(i);
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+
+            long thread = Thread.currentThread().getId();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getThread() == null || event.getThread().getJavaThreadId() != thread
+                        || !fromWorkload(event.getStackTrace())) {
+                    continue;
+                }
+                // A TLAB event stands for the whole TLAB the allocation started
+                long bytes = event.hasField("tlabSize") ? event.getLong("tlabSize") : event.getLong("allocationSize");
+                bytesBySite.merge(describeSite(event), bytes, Long::sum);
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Map.Entry<String, Long>> sites = new ArrayList<>(bytesBySite.entrySet());
+        sites.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < Math.min(TOP_SITES, sites.size()); i++) {
+            report.append(String.format("  %10d bytes  %s%n", sites.get(i).getValue(), sites.get(i).getKey()));
+        }
+        return report.length() > 0 ? report.toString() : "  (no allocation samples)\n";
+    }
+
+    // Whether a frame of game or test code other than this harness is on the stack
+    private static boolean fromWorkload(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (isWorkloadFrame(frame)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWorkloadFrame(RecordedFrame frame) {
+        String className = frame.getMethod().getType().getName();
+        return className.startsWith(PACKAGE) && !className.equals(AllocationHarness.class.getName());
+    }
+
+    // "allocated type in allocating method <- first workload frame"
+    private static String describeSite(RecordedEvent event) {
+        String type = event.getClass("objectClass").getName();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return type;
+        }
+
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder site = new StringBuilder(type).append(" in ").append(describeFrame(frames.get(0)));
+        for (RecordedFrame frame : frames) {
+            if (isWorkloadFrame(frame)) {
+                if (frame != frames.get(0)) {
+                    site.append(" <- ").append(describeFrame(frame));
+                }
+                break;
+            }
+        }
+        return site.toString();
+    }
+
+    private static String describeFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static long budget(String name) {
+        Properties budgets = new Properties();
+        try (InputStream in = AllocationHarness.class.getResourceAsStream(BUDGETS)) {
+            if (in == null) {
+                throw new IllegalStateException(BUDGETS + " not found");
+            }
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String budget = budgets.getProperty(name);
+        if (budget == null) {
+            throw new IllegalStateException("No allocation budget for " + name + " in " + BUDGETS);
+        }
+        return Long.parseLong(budget.trim());
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("Thread allocation counting isn't supported on this JVM");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AnimationClipTest {
+
+    @Test
+    public void loopingClipWrapsAround() {
+        AnimationClip clip = AnimationClip.loop("spin", 4, 50);
+        assertEquals(200, clip.getDuration());
+        assertEquals(0, clip.frameAt(0));
+        assertEquals(0, clip.frameAt(49));
+        assertEquals(1, clip.frameAt(50));
+        assertEquals(3, clip.frameAt(199));
+        assertEquals(0, clip.frameAt(200));
+        assertEquals(2, clip.frameAt(10_000 + 120));
+        assertFalse(clip.isComplete(1_000_000));
+    }
+
+    @Test
+    public void onceHoldsTheLastFrameAndCompletes() {
+        AnimationClip clip = AnimationClip.once("boom", 4, 100, AnimationClip.EVENT_REMOVE);
+        assertEquals(3, clip.frameAt(399));
+        assertFalse(clip.isComplete(399));
+        assertTrue(clip.isComplete(400));
+        assertEquals(3, clip.frameAt(5_000));
+        assertEquals(AnimationClip.EVENT_REMOVE, clip.getOnComplete());
+    }
+
+    @Test
+    public void framesCanHaveTheirOwnLengths() {
+        int[] lengths = {10, 30, 60};
+        AnimationClip clip = AnimationClip.of("blink", lengths, true, AnimationClip.EVENT_NONE);
+        lengths[0] = 1000; // the clip keeps its own copy
+        assertEquals(100, clip.getDuration());
+        assertEquals(0, clip.frameAt(9));
+        assertEquals(1, clip.frameAt(10));
+        assertEquals(2, clip.frameAt(40));
+        assertEquals(0, clip.frameAt(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyFrames() {
+        AnimationClip.of("broken", new int[]{50, 0}, true, AnimationClip.EVENT_NONE);
+    }
+
+    @Test
+    public void entitiesAnimateFromTheirClipAndGameTime() {
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100), new SpriteSize(122, 119),
+                new SpriteSize(36, 37), 1, GameWorld.STONE_CAPACITY, GameWorld.BULLET_CAPACITY,
+                WaveSchedule.parse("wave 0\nrate 0:0\n"));
+        EntityStore stones = world.getStones();
+        stones.add(500, 0, 0, 1, world.getTimeMillis());
+        stones.add(700, 0, 0, 1, world.getTimeMillis());
+        GameInput input = new GameInput();
+        RenderSnapshot snapshot = new RenderSnapshot(world);
+
+        // 250 ms in: the second rock frame
+        for (int i = 0; i < 15; i++) {
+            world.tick(input);
+        }
+        snapshot.copyFrom(world, 0);
+        assertEquals(1, snapshot.getStones().frame[0]);
+        assertEquals(GameWorld.PLAYER_CLIP.frameAt(world.getTimeMillis()), snapshot.getPlayerFrame());
+
+        // An explosion restarts the stone's animation and removes it once played
+        stones.flags[1] |= EntityStore.FLAG_EXPLODING;
+        stones.play(1, GameWorld.EXPLOSION_CLIP, world.getTimeMillis());
+        long explodedAt = world.getTimeMillis();
+        snapshot.copyFrom(world, 0);
+        while (stones.size() == 2) {
+            assertEquals(GameWorld.EXPLOSION_CLIP.frameAt(world.getTimeMillis() - explodedAt),
+                    snapshot.getStones().frame[1]);
+            world.tick(input);
+            snapshot.copyFrom(world, 0);
+        }
+        assertEquals(GameWorld.EXPLOSION_CLIP.getDuration(), world.getTimeMillis() - explodedAt, 17);
+        assertSame(GameWorld.STONE_CLIP, stones.clip[0]);
+    }
+}
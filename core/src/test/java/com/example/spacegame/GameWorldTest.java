@@ -0,0 +1,111 @@
+package com.example.spacegame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameWorldTest {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+
+    private GameWorld world;
+    private GameInput input;
+
+    @Before
+    public void setUp() {
+        world = newWorld(42);
+        input = new GameInput();
+    }
+
+    private static GameWorld newWorld(long seed) {
+        return new GameWorld(SCREEN_WIDTH, SCREEN_HEIGHT, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), seed);
+    }
+
+    private void tick(int count) {
+        for (int i = 0; i < count; i++) {
+            world.tick(input);
+        }
+    }
+
+    @Test
+    public void spawnsStoneEveryTwoSecondsOfSimulationTime() {
+        tick(120);
+        assertEquals(0, world.getStones().size());
+
+        tick(1);
+        assertEquals(1, world.getStones().size());
+        assertEquals(0, world.getStones().y[0]);
+    }
+
+    @Test
+    public void tiltMovesPlayerAndKeepsItOnScreen() {
+        int startX = world.getPlayerX();
+
+        input.set(-1f, 0, false);
+        tick(1);
+        assertEquals(startX + 10, world.getPlayerX());
+        assertEquals(startX, world.getPreviousPlayerX());
+
+        tick(1000);
+        assertEquals(SCREEN_WIDTH - 96, world.getPlayerX());
+    }
+
+    @Test
+    public void bulletDestroysStoneInItsPath() {
+        tick(121);
+        EntityStore stones = world.getStones();
+        stones.x[0] = world.getPlayerX();
+        stones.health[0] = 1;
+
+        input.set(0f, 1, false);
+        tick(1);
+        input.set(0f, 0, false);
+        assertEquals(1, world.getBullets().size());
+
+        tick(60);
+        assertTrue(stones.hasFlag(0, EntityStore.FLAG_EXPLODING));
+        assertEquals(0, world.getBullets().size());
+        assertEquals(3, world.getLives());
+        assertEquals(10, world.getScore());
+    }
+
+    @Test
+    public void missedStonesEndTheGameAndTapRestarts() {
+        // Park the player away from where the stones fall
+        input.set(-10f, 0, false);
+        for (int i = 0; i < 10_000 && !world.isGameOver(); i++) {
+            tick(1);
+            EntityStore stones = world.getStones();
+            for (int s = 0; s < stones.size(); s++) {
+                stones.x[s] = 0;
+            }
+        }
+        assertTrue(world.isGameOver());
+        assertEquals(0, world.getLives());
+
+        input.set(0f, 0, true);
+        tick(1);
+        assertFalse(world.isGameOver());
+        assertEquals(3, world.getLives());
+        assertEquals(0, world.getScore());
+        assertEquals(0, world.getStones().size());
+    }
+
+    @Test
+    public void sameSeedAndInputGiveSameWorld() {
+        GameWorld other = newWorld(42);
+        for (int i = 0; i < 5_000; i++) {
+            input.set((i % 200) / 100f - 1f, i % 7 == 0 ? 1 : 0, false);
+            world.tick(input);
+            other.tick(input);
+        }
+        assertEquals(world.getStones().size(), other.getStones().size());
+        for (int s = 0; s < world.getStones().size(); s++) {
+            assertEquals(world.getStones().x[s], other.getStones().x[s]);
+            assertEquals(world.getStones().y[s], other.getStones().y[s]);
+        }
+        assertEquals(world.getLives(), other.getLives());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(10, histogram.getCount());
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertWithin(50_000_000L, histogram.getValueAtPercentile(50));
+        assertWithin(95_000_000L, histogram.getValueAtPercentile(95));
+        assertWithin(99_000_000L, histogram.getValueAtPercentile(99));
+        assertEquals(100_000_000L, histogram.getMax());
+    }
+
+    @Test
+    public void resetAndCopy() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000_000);
+        Histogram copy = new Histogram();
+        copy.copyFrom(histogram);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(1, copy.getCount());
+        assertEquals(1_000_000, copy.getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.07);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class LoadStageTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void reportsProgressAndPublishesResults() throws InterruptedException {
+        LoadStage stage = new LoadStage();
+        CountDownLatch release = new CountDownLatch(1);
+        int[] results = new int[3];
+        stage.add("fast", () -> results[0] = 1);
+        stage.add("also fast", () -> results[1] = 2);
+        stage.add("slow", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            results[2] = 3;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            stage.start(executor);
+            while (stage.getCompletedCount() < 2) {
+                Thread.yield();
+            }
+            assertEquals(2f / 3, stage.getProgress(), 1e-6f);
+            assertFalse(stage.isDone());
+            assertFalse(stage.await(1_000_000));
+            assertEquals(0, stage.getElapsedNanos());
+
+            release.countDown();
+            assertTrue(stage.await(10 * SECOND));
+            assertTrue(stage.isDone());
+            assertEquals(1f, stage.getProgress(), 0f);
+            assertTrue(stage.getElapsedNanos() > 0);
+            assertArrayEquals(new int[] {1, 2, 3}, results);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void rethrowsTheFirstFailure() throws InterruptedException {
+        LoadStage stage = new LoadStage();
+        stage.add("ok", () -> { });
+        stage.add("broken", () -> {
+            throw new IllegalArgumentException("bad sprite");
+        });
+        stage.start(Runnable::run);
+
+        assertTrue(stage.isDone());
+        try {
+            stage.await(SECOND);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("broken"));
+            assertEquals("bad sprite", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsTasksAfterStart() {
+        LoadStage stage = new LoadStage();
+        stage.start(Runnable::run);
+        stage.add("late", () -> { });
+    }
+}
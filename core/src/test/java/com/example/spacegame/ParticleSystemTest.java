@@ -0,0 +1,103 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticleSystemTest {
+
+    @Test
+    public void budgetCapsLiveParticles() {
+        ParticleSystem particles = new ParticleSystem(50, 1);
+        assertEquals(24, particles.emit(ParticleSystem.EMITTER_EXPLOSION, 100, 100));
+        assertEquals(24, particles.emit(ParticleSystem.EMITTER_EXPLOSION, 100, 100));
+        assertEquals(2, particles.emit(ParticleSystem.EMITTER_EXPLOSION, 100, 100));
+        assertEquals(0, particles.emit(ParticleSystem.EMITTER_ENGINE, 100, 100));
+
+        assertEquals(50, particles.size());
+        assertEquals(50, particles.getHighWaterMark());
+        assertEquals(22 + 2, particles.getDroppedCount());
+    }
+
+    @Test
+    public void particlesMoveFadeAndDie() {
+        ParticleSystem particles = new ParticleSystem(100, 2);
+        particles.emit(ParticleSystem.EMITTER_EXPLOSION, 500, 500);
+        particles.emit(ParticleSystem.EMITTER_ENGINE, 200, 900);
+
+        particles.update();
+        for (int i = 0; i < particles.size(); i++) {
+            assertNotEquals(particles.prevX[i] == particles.x[i] && particles.prevY[i] == particles.y[i], true);
+        }
+
+        // Colors only move forward along each emitter's ramp
+        int[] previous = new int[particles.size()];
+        for (int tick = 0; tick < 45 && particles.size() > 0; tick++) {
+            int size = particles.size();
+            for (int i = 0; i < size; i++) {
+                previous[i] = particles.color[i];
+            }
+            particles.update();
+            for (int i = 0; i < particles.size() && particles.size() == size; i++) {
+                assertTrue(particles.color[i] >= previous[i]);
+            }
+            for (int i = 0; i < particles.size(); i++) {
+                int color = particles.color[i];
+                if (particles.emitter[i] == ParticleSystem.EMITTER_ENGINE) {
+                    assertTrue(color >= 6 && color < 10);
+                } else {
+                    assertTrue(color >= 0 && color < 6);
+                }
+                assertTrue(particles.life[i] > 0);
+            }
+        }
+        assertEquals(0, particles.size());
+    }
+
+    @Test
+    public void worldEmitsOnDestructionAndFromTheEngine() {
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 42);
+        GameInput input = new GameInput();
+        world.tick(input);
+        assertEquals(2, world.getParticles().size());
+
+        // Shoot down the first stone, as in GameWorldTest
+        for (int i = 0; i < 120; i++) {
+            world.tick(input);
+        }
+        EntityStore stones = world.getStones();
+        stones.x[0] = world.getPlayerX();
+        stones.health[0] = 1;
+        input.set(0f, 1, false);
+        world.tick(input);
+        input.set(0f, 0, false);
+        int engine = world.getParticles().size();
+        while (!stones.hasFlag(0, EntityStore.FLAG_EXPLODING)) {
+            world.tick(input);
+        }
+        assertTrue(world.getParticles().size() >= engine + 24 - 2);
+    }
+
+    @Test
+    public void sameSeedGivesSameParticles() {
+        GameWorld a = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 9);
+        GameWorld b = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 9);
+        GameInput input = new GameInput();
+        for (int i = 0; i < 3_000; i++) {
+            input.set((i % 200) / 100f - 1f, i % 5 == 0 ? 1 : 0, false);
+            a.tick(input);
+            b.tick(input);
+        }
+        ParticleSystem pa = a.getParticles();
+        ParticleSystem pb = b.getParticles();
+        assertEquals(pa.size(), pb.size());
+        for (int i = 0; i < pa.size(); i++) {
+            assertEquals(pa.x[i], pb.x[i], 0f);
+            assertEquals(pa.y[i], pb.y[i], 0f);
+            assertEquals(pa.color[i], pb.color[i]);
+        }
+    }
+}
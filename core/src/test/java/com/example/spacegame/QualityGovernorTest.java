@@ -0,0 +1,163 @@
+package com.example.spacegame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QualityGovernorTest {
+    private static final long BUDGET = 16_000_000;
+    private static final int WINDOW = 10;
+    private static final long FAST = 10_000_000;
+    private static final long SLOW = 30_000_000;
+
+    private QualityGovernor governor;
+    private final List<String> changes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        governor = new QualityGovernor(BUDGET, WINDOW);
+        governor.setListener((from, to, reason) -> changes.add(from + ">" + to + " " + reason));
+    }
+
+    // Records windows of frames with the given number of slow ones each
+    private void windows(int count, int slowFrames) {
+        for (int w = 0; w < count; w++) {
+            for (int i = 0; i < WINDOW; i++) {
+                governor.recordFrame(i < slowFrames ? SLOW : FAST);
+            }
+        }
+    }
+
+    @Test
+    public void lowersOneLevelPerWindowAfterTheHold() {
+        assertSame(QualityLevel.HIGH, governor.getLevel());
+
+        windows(1, 5);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+        assertEquals(0.5f, governor.getSlowFraction(), 0f);
+        assertEquals((5 * SLOW + 5 * FAST) / 10, governor.getAverageFrameNanos());
+
+        // Still slow, but the frames right after a change don't count
+        windows(QualityGovernor.HOLD_WINDOWS, 5);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+        windows(1, 5);
+        assertSame(QualityLevel.LOW, governor.getLevel());
+
+        // Nothing below the lowest level
+        windows(10, 10);
+        assertSame(QualityLevel.LOW, governor.getLevel());
+        assertEquals(List.of("high>medium frame time", "medium>low frame time"), changes);
+    }
+
+    @Test
+    public void raisesOnlyAfterSustainedGoodWindows() {
+        windows(1, 10);
+        windows(QualityGovernor.HOLD_WINDOWS, 0);
+
+        // One window short of a raise, then a middling one starts the count over
+        windows(QualityGovernor.RAISE_WINDOWS - 1, 0);
+        windows(1, 1);
+        windows(QualityGovernor.RAISE_WINDOWS - 1, 0);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+
+        windows(1, 0);
+        assertSame(QualityLevel.HIGH, governor.getLevel());
+        assertEquals("medium>high recovered", changes.get(1));
+    }
+
+    @Test
+    public void holdsBetweenTheThresholds() {
+        // 10% slow frames: not enough to lower, too many to raise
+        windows(1, 10);
+        windows(50, 1);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+        assertEquals(1, governor.getChangeCount());
+    }
+
+    @Test
+    public void thermalHeadroomLowersAndBlocksRaising() {
+        governor.setThermalHeadroom(0.95f);
+        windows(1, 0);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+        assertEquals("high>medium thermal headroom", changes.get(0));
+
+        // Cooled a bit, but not below the raise threshold
+        governor.setThermalHeadroom(0.8f);
+        windows(20, 0);
+        assertSame(QualityLevel.MEDIUM, governor.getLevel());
+
+        governor.setThermalHeadroom(0.5f);
+        windows(QualityGovernor.RAISE_WINDOWS, 0);
+        assertSame(QualityLevel.HIGH, governor.getLevel());
+    }
+
+    @Test
+    public void unknownHeadroomOnlyCountsFrameTimes() {
+        governor.setThermalHeadroom(Float.NaN);
+        windows(1, 10);
+        windows(QualityGovernor.HOLD_WINDOWS + QualityGovernor.RAISE_WINDOWS, 0);
+        assertSame(QualityLevel.HIGH, governor.getLevel());
+        assertEquals(2, governor.getChangeCount());
+    }
+
+    @Test
+    public void entityLimitReachesTheWorldAndTheLog() throws IOException {
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 4, 4096, 4096, WaveSchedule.STRESS);
+        InputRecorder recorder = new InputRecorder(world);
+        GameInput input = new GameInput();
+        for (int i = 0; i < 60 * 60; i++) {
+            input.setEntityLimit(i < 30 * 60 ? QualityLevel.LOW.getEntityLimit() : QualityLevel.MEDIUM.getEntityLimit());
+            recorder.record(input);
+            world.tick(input);
+            assertTrue(world.getStones().size() <= input.getEntityLimit() + WaveSchedule.STRESS.getBurstMax(0));
+        }
+        assertTrue(world.getStones().size() > QualityLevel.LOW.getEntityLimit());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.toLog().write(out);
+        InputLog log = InputLog.read(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(new Replayer().replay(log).matches());
+    }
+
+    @Test
+    public void lowQualityDrawsLessOfTheScene() {
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 3, 4096, 4096, WaveSchedule.STRESS);
+        world.setInvulnerable(true);
+        GameInput input = new GameInput();
+        input.set(0f, 2, false);
+        for (int i = 0; i < 20 * 60; i++) {
+            world.tick(input);
+        }
+        RenderSnapshot snapshot = new RenderSnapshot(world);
+        snapshot.copyFrom(world, 0);
+        Starfield starfield = new Starfield(1, 1080, 1920, 256 * 1024);
+
+        RenderCommandBuffer high = new RenderCommandBuffer();
+        SceneRecorder.record(snapshot, 0.5f, starfield, QualityLevel.HIGH, high);
+        CountingRenderBackend highBackend = new CountingRenderBackend();
+        high.submit(highBackend);
+
+        RenderCommandBuffer low = new RenderCommandBuffer();
+        SceneRecorder.record(snapshot, 0.5f, starfield, QualityLevel.LOW, low);
+        CountingRenderBackend lowBackend = new CountingRenderBackend();
+        low.submit(lowBackend);
+
+        // Far star layers dropped, and unanimated stones and bullets batch into one draw each
+        assertTrue(lowBackend.getSpriteCount() < highBackend.getSpriteCount());
+        assertTrue(lowBackend.getBatchCount() < highBackend.getBatchCount());
+        int[] frames = new int[SceneRecorder.SPRITE_COUNT];
+        low.submit((sprite, frame, x, y, count) -> frames[sprite] |= 1 << frame);
+        assertEquals(1, frames[SceneRecorder.SPRITE_STONE]);
+        assertEquals(1, frames[SceneRecorder.SPRITE_BULLET]);
+        assertEquals(0, frames[SceneRecorder.SPRITE_STONE_EXPLOSION] & 0b1010);
+    }
+}
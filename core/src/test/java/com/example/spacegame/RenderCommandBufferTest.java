@@ -0,0 +1,70 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RenderCommandBufferTest {
+
+    // Remembers each batch as "sprite/frame:x,x,..."
+    private static class RecordingBackend implements RenderBackend {
+        final List<String> batches = new ArrayList<>();
+
+        @Override
+        public void drawBatch(int sprite, int frame, float[] x, float[] y, int count) {
+            StringBuilder batch = new StringBuilder().append(sprite).append('/').append(frame).append(':');
+            for (int i = 0; i < count; i++) {
+                batch.append(i == 0 ? "" : ",").append((int) x[i]);
+            }
+            batches.add(batch.toString());
+        }
+    }
+
+    @Test
+    public void submitsByLayerThenSpriteInRecordingOrder() {
+        RenderCommandBuffer commands = new RenderCommandBuffer(2);
+        commands.add(3, 0, 1, 0, 2);
+        commands.add(2, 1, 2, 0, 1);
+        commands.add(3, 1, 3, 0, 2);
+        commands.add(3, 0, 4, 0, 2);
+        commands.add(0, 0, 5, 0, 0);
+        commands.add(2, 1, 6, 0, 1);
+
+        RecordingBackend backend = new RecordingBackend();
+        commands.submit(backend);
+
+        assertEquals(6, commands.size());
+        assertEquals(List.of("0/0:5", "2/1:2,6", "3/0:1,4", "3/1:3"), backend.batches);
+        assertEquals(4, commands.getBatchCount());
+    }
+
+    @Test
+    public void recordsWholeSceneFromSnapshot() {
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 42);
+        GameInput input = new GameInput();
+        input.set(0f, 1, false);
+        for (int i = 0; i < 130; i++) {
+            world.tick(input);
+        }
+        RenderSnapshot snapshot = new RenderSnapshot(world);
+        snapshot.copyFrom(world, 0);
+
+        Starfield starfield = new Starfield(1, 1080, 1920, 256 * 1024);
+        RenderCommandBuffer background = new RenderCommandBuffer();
+        starfield.record(0, background);
+
+        RenderCommandBuffer commands = new RenderCommandBuffer();
+        SceneRecorder.record(snapshot, 0.5f, starfield, commands);
+        CountingRenderBackend backend = new CountingRenderBackend();
+        commands.submit(backend);
+
+        int entities = world.getStones().size() + world.getBullets().size() + world.getParticles().size();
+        assertEquals(background.size() + 1 + entities, backend.getSpriteCount());
+        assertEquals(commands.getBatchCount(), backend.getBatchCount());
+        assertTrue(backend.getBatchCount() < backend.getSpriteCount());
+    }
+}
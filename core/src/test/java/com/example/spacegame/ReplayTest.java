@@ -0,0 +1,138 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+
+    private static GameWorld newWorld(long seed) {
+        return new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), seed);
+    }
+
+    // Plays a session with noisy tilt, occasional bursts of taps and restarts
+    private static InputLog record(long seed, int ticks) {
+        GameWorld world = newWorld(seed);
+        InputRecorder recorder = new InputRecorder(world);
+        GameInput input = new GameInput();
+        Random random = new Random(seed + 1);
+        float acceleration = 0f;
+        for (int i = 0; i < ticks; i++) {
+            if (random.nextInt(4) == 0) {
+                acceleration = random.nextFloat() * 4f - 2f;
+            }
+            int shots = random.nextInt(30) == 0 ? random.nextInt(200) : 0;
+            input.set(acceleration, shots, world.isGameOver() && random.nextInt(60) == 0);
+            recorder.record(input);
+            world.tick(input);
+        }
+        return recorder.toLog();
+    }
+
+    private static InputLog roundTrip(InputLog log) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.write(out);
+        return InputLog.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void replayReachesRecordedState() throws IOException {
+        InputLog log = roundTrip(record(7, 20_000));
+        Replayer.Result result = new Replayer().replay(log);
+
+        assertEquals(20_000, result.getTicks());
+        assertTrue(result.matches());
+        assertEquals(log.getFinalStateHash(), result.getStateHash());
+    }
+
+    @Test
+    public void readerReturnsRecordedInput() {
+        GameWorld world = newWorld(1);
+        InputRecorder recorder = new InputRecorder(world);
+        GameInput input = new GameInput();
+        input.set(0.25f, 0, false);
+        recorder.record(input);
+        input.set(0.25f, 500, false);
+        recorder.record(input);
+        input.set(-1.5f, 63, true);
+        recorder.record(input);
+        input.setEntityLimit(300);
+        input.set(-1.5f, 31, false);
+        recorder.record(input);
+
+        InputLog.Reader reader = recorder.toLog().reader();
+        assertTrue(reader.next(input));
+        assertEquals(0.25f, input.getAcceleration(), 0f);
+        assertTrue(reader.next(input));
+        assertEquals(0.25f, input.getAcceleration(), 0f);
+        assertEquals(500, input.getShots());
+        assertTrue(reader.next(input));
+        assertEquals(-1.5f, input.getAcceleration(), 0f);
+        assertEquals(63, input.getShots());
+        assertTrue(input.isRestart());
+        assertEquals(GameInput.NO_ENTITY_LIMIT, input.getEntityLimit());
+        assertTrue(reader.next(input));
+        assertEquals(31, input.getShots());
+        assertEquals(300, input.getEntityLimit());
+        assertFalse(reader.next(input));
+    }
+
+    @Test
+    public void rejectsLogsFromOlderSimulations() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        record(7, 100).write(out);
+        byte[] log = out.toByteArray();
+
+        // The rules version follows the magic
+        log[7]--;
+        assertOlderSimulation(log);
+
+        // Logs from before rules versions, down to those from before wave schedules
+        for (int magic : new int[]{0x53474C31, 0x53474C32, 0x53474C33}) { // "SGL1" to "SGL3"
+            ByteArrayOutputStream old = new ByteArrayOutputStream();
+            new DataOutputStream(old).writeInt(magic);
+            assertOlderSimulation(old.toByteArray());
+        }
+    }
+
+    private static void assertOlderSimulation(byte[] log) {
+        try {
+            InputLog.read(new ByteArrayInputStream(log));
+            fail("Read a log from an older simulation");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("recorded by an older simulation"));
+        }
+    }
+
+    @Test
+    public void logKeepsTheWaveSchedule() throws IOException {
+        WaveSchedule schedule = WaveSchedule.parse("wave 5000\nrate 0:3\nwave 0\nburst 2 4\n");
+        GameWorld world = new GameWorld(1080, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 3, 512, 512, schedule);
+        InputRecorder recorder = new InputRecorder(world);
+        GameInput input = new GameInput();
+        for (int i = 0; i < 3_000; i++) {
+            input.set(i % 300 < 150 ? 1f : -1f, i % 20 == 0 ? 1 : 0, world.isGameOver());
+            recorder.record(input);
+            world.tick(input);
+        }
+
+        InputLog log = roundTrip(recorder.toLog());
+        assertEquals(schedule.getSource(), log.getWaveSchedule().getSource());
+        assertTrue(new Replayer().replay(log).matches());
+    }
+
+    @Test
+    public void differentSeedDoesNotMatch() {
+        InputLog log = record(7, 5_000);
+        InputLog other = record(8, 5_000);
+        assertNotEquals(log.getFinalStateHash(), other.getFinalStateHash());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SensorPipelineTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void lowPassSmoothsNoiseAndConvergesOnSteps() {
+        TiltFilter filter = new TiltFilter(30 * MS, false, 0);
+        assertEquals(0f, filter.valueAt(0), 0f);
+
+        // Alternating noise around 2 is damped well below its +-1 swing
+        for (int i = 0; i < 100; i++) {
+            filter.add(i % 2 == 0 ? 3f : 1f, i * 10 * MS);
+        }
+        assertEquals(2f, filter.valueAt(1000 * MS), 0.2f);
+
+        // A step is followed within a few time constants
+        for (int i = 100; i < 130; i++) {
+            filter.add(5f, i * 10 * MS);
+        }
+        assertEquals(5f, filter.valueAt(1300 * MS), 0.01f);
+    }
+
+    @Test
+    public void predictionTracksARampAndIsCapped() {
+        TiltFilter lowPass = new TiltFilter(30 * MS, false, 0);
+        TiltFilter predictive = new TiltFilter(30 * MS, true, 20 * MS);
+
+        // Tilt rising at 10 units per second
+        for (int i = 0; i <= 200; i++) {
+            long time = i * 10 * MS;
+            lowPass.add(time / 1e8f, time);
+            predictive.add(time / 1e8f, time);
+        }
+        float actual = 20f;
+        assertTrue(actual - lowPass.valueAt(2000 * MS) > 0.2f);
+        assertEquals(actual, predictive.valueAt(2000 * MS), 0.05f);
+
+        // Extrapolation stops at the cap however long the sensor stays quiet
+        assertEquals(predictive.valueAt(2020 * MS), predictive.valueAt(5000 * MS), 0f);
+        assertEquals(actual + 0.2f, predictive.valueAt(2020 * MS), 0.05f);
+    }
+
+    @Test
+    public void drainsBatchesAndMeasuresLatencyAndRate() {
+        SensorPipeline pipeline = new SensorPipeline(8, new TiltFilter(0, false, 0));
+
+        // A batch of four 10 ms samples delivered together, read at 50 ms
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pipeline.offer(i, i * 10 * MS));
+        }
+        assertEquals(3f, pipeline.sample(50 * MS), 0f);
+
+        Histogram latency = new Histogram();
+        pipeline.copyLatencyTo(latency);
+        assertEquals(4, latency.getCount());
+        assertEquals(50 * MS, latency.getMax(), 50 * MS / 100);
+
+        // Without new samples the last value holds
+        assertEquals(3f, pipeline.sample(60 * MS), 0f);
+
+        for (int i = 4; i <= 110; i++) {
+            pipeline.offer(i, i * 10 * MS);
+            pipeline.sample(i * 10 * MS);
+        }
+        assertEquals(100f, pipeline.getSampleRate(), 1f);
+    }
+
+    @Test
+    public void dropsSamplesWhenFullAndClears() {
+        SensorPipeline pipeline = new SensorPipeline(4, new TiltFilter(0, false, 0));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pipeline.offer(i, i));
+        }
+        assertFalse(pipeline.offer(9, 9));
+        assertEquals(1, pipeline.getOverflowCount());
+
+        pipeline.clear();
+        assertEquals(0f, pipeline.sample(10), 0f);
+        assertTrue(pipeline.offer(7, 20));
+        assertEquals(7f, pipeline.sample(30), 0f);
+    }
+
+    @Test
+    public void handsOverEverySampleAcrossThreads() throws InterruptedException {
+        // Zero time constant: the output is the newest sample
+        SensorPipeline pipeline = new SensorPipeline(64, new TiltFilter(0, false, 0));
+        int count = 100_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= count; i++) {
+                while (!pipeline.offer(i, i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        float last = 0f;
+        while (last < count) {
+            float value = pipeline.sample(count);
+            assertTrue(value >= last);
+            if (value == last) {
+                Thread.yield();
+            }
+            last = value;
+        }
+        producer.join();
+
+        Histogram latency = new Histogram();
+        pipeline.copyLatencyTo(latency);
+        assertEquals(count, latency.getCount());
+    }
+}
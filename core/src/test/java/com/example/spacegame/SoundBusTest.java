@@ -0,0 +1,174 @@
+package com.example.spacegame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SoundBusTest {
+    private static final int SHOOT = 0;
+    private static final int EXPLOSION = 1;
+    private static final int GAME_OVER = 2;
+    private static final long MILLIS = 1_000_000;
+
+    // Remembers what the bus asked it to do
+    private static class FakePlayer implements SoundPlayer {
+        final List<String> calls = new ArrayList<>();
+        int nextStream = 1;
+
+        @Override
+        public int play(int sound, float volume, int priority) {
+            calls.add("play " + sound + " " + volume);
+            return nextStream++;
+        }
+
+        @Override
+        public void setVolume(int stream, float volume) {
+            calls.add("volume " + stream + " " + volume);
+        }
+
+        @Override
+        public void stop(int stream) {
+            calls.add("stop " + stream);
+        }
+    }
+
+    private long now;
+    private FakePlayer player;
+    private SoundBus bus;
+
+    @Before
+    public void setUp() {
+        player = new FakePlayer();
+        bus = new SoundBus(player, () -> now, 2, 50 * MILLIS, 64);
+        bus.register(SHOOT, 1, 300 * MILLIS);
+        bus.register(EXPLOSION, 2, 1000 * MILLIS);
+        bus.register(GAME_OVER, 3, 2000 * MILLIS);
+    }
+
+    @Test
+    public void mergesIdenticalSoundsWithinWindow() {
+        bus.post(EXPLOSION, 0.7f);
+        bus.post(EXPLOSION, 1.0f);
+        bus.post(EXPLOSION, 0.5f);
+        now += 5 * MILLIS;
+        bus.process(now);
+
+        assertEquals(List.of("play 1 0.7", "volume 1 1.0"), player.calls);
+        assertEquals(1, bus.getPlayedCount());
+        assertEquals(2, bus.getMergedCount());
+
+        // Past the window the same sound plays again
+        now += 60 * MILLIS;
+        bus.post(EXPLOSION, 0.7f);
+        bus.process(now);
+        assertEquals(2, bus.getPlayedCount());
+    }
+
+    @Test
+    public void voiceBudgetKeepsHigherPriorities() {
+        bus.post(EXPLOSION, 1f);
+        bus.post(SHOOT, 1f);
+        bus.process(now);
+
+        // Budget full: game over replaces the shot, another shot is dropped
+        now += 100 * MILLIS;
+        bus.post(GAME_OVER, 1f);
+        bus.post(SHOOT, 1f);
+        bus.process(now);
+
+        assertEquals(List.of("play 1 1.0", "play 0 1.0", "stop 2", "play 2 1.0"), player.calls);
+        assertEquals(1, bus.getStolenCount());
+        assertEquals(1, bus.getDroppedCount());
+
+        // Once the explosion has finished its voice is free again
+        now += 1000 * MILLIS;
+        bus.post(SHOOT, 1f);
+        bus.process(now);
+        assertEquals("play 0 1.0", player.calls.get(player.calls.size() - 1));
+    }
+
+    @Test
+    public void recordsLatencyFromPostToPlay() {
+        bus.post(SHOOT, 1f);
+        now += 3 * MILLIS;
+        bus.process(now);
+
+        Histogram latency = new Histogram();
+        bus.copyLatencyTo(latency);
+        assertEquals(1, latency.getCount());
+        assertEquals(3 * MILLIS, latency.getMax(), 3 * MILLIS * 0.07);
+    }
+
+    @Test
+    public void audioThreadWakesForEventsAndStops() throws InterruptedException {
+        CountDownLatch played = new CountDownLatch(2);
+        SoundPlayer latchPlayer = new SoundPlayer() {
+            @Override
+            public int play(int sound, float volume, int priority) {
+                played.countDown();
+                return 1;
+            }
+
+            @Override
+            public void setVolume(int stream, float volume) {
+            }
+
+            @Override
+            public void stop(int stream) {
+            }
+        };
+        SoundBus threaded = new SoundBus(latchPlayer, Clock.SYSTEM, 4, 0, 64);
+        threaded.register(SHOOT, 1, 0);
+        threaded.start();
+
+        // The thread parks until something is posted, however long that takes
+        Thread.sleep(50);
+        assertTrue(threaded.post(SHOOT, 1f));
+        Thread.sleep(50);
+        assertTrue(threaded.post(SHOOT, 1f));
+        assertTrue(played.await(5, TimeUnit.SECONDS));
+
+        threaded.stop();
+        assertEquals(2, threaded.getPlayedCount());
+    }
+
+    @Test
+    public void queueKeepsEveryEventFromConcurrentProducers() throws InterruptedException {
+        SoundEventQueue queue = new SoundEventQueue(1024);
+        int producers = 4;
+        int perProducer = 100_000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int sound = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(sound, 1f, i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        // Each producer's events must arrive complete and in order
+        long[] expected = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            if (queue.poll()) {
+                int sound = queue.getPolledSound();
+                assertEquals(expected[sound]++, queue.getPolledTime());
+                received++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(queue.poll());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SpriteAtlasTest {
+    private static final String[] SETS = {"rock", "explosion", "bullet"};
+    private static final int[][] WIDTHS = {{122, 122, 122, 122}, {118, 118}, {36, 36, 36}};
+    private static final int[][] HEIGHTS = {{119, 119, 119, 119}, {133, 133}, {37, 37, 37}};
+    private static final int PADDING = 2;
+
+    @Test
+    public void packsFramesWithoutOverlapInsideTheAtlas() {
+        SpriteAtlas atlas = SpriteAtlas.pack(SETS, WIDTHS, HEIGHTS, 400, PADDING);
+        assertTrue(atlas.getWidth() <= 400);
+
+        int frames = 0;
+        for (int s = 0; s < atlas.getSetCount(); s++) {
+            assertEquals(WIDTHS[s].length, atlas.getFrameCount(s));
+            for (int f = 0; f < atlas.getFrameCount(s); f++) {
+                assertEquals(WIDTHS[s][f], atlas.getFrameWidth(s, f));
+                assertEquals(HEIGHTS[s][f], atlas.getFrameHeight(s, f));
+                assertTrue(atlas.getFrameX(s, f) >= PADDING && atlas.getFrameY(s, f) >= PADDING);
+                assertTrue(atlas.getFrameX(s, f) + WIDTHS[s][f] + PADDING <= atlas.getWidth());
+                assertTrue(atlas.getFrameY(s, f) + HEIGHTS[s][f] + PADDING <= atlas.getHeight());
+                frames++;
+            }
+        }
+
+        // Every pair of frames keeps the padding between them
+        for (int a = 0; a < frames; a++) {
+            for (int b = a + 1; b < frames; b++) {
+                int[] ra = rect(atlas, a);
+                int[] rb = rect(atlas, b);
+                boolean apart = ra[0] + ra[2] + PADDING <= rb[0] || rb[0] + rb[2] + PADDING <= ra[0]
+                        || ra[1] + ra[3] + PADDING <= rb[1] || rb[1] + rb[3] + PADDING <= ra[1];
+                assertTrue("frames " + a + " and " + b + " overlap", apart);
+            }
+        }
+    }
+
+    // x, y, width, height of the n-th frame over all sets
+    private static int[] rect(SpriteAtlas atlas, int n) {
+        int s = 0;
+        while (n >= atlas.getFrameCount(s)) {
+            n -= atlas.getFrameCount(s++);
+        }
+        return new int[]{atlas.getFrameX(s, n), atlas.getFrameY(s, n),
+                atlas.getFrameWidth(s, n), atlas.getFrameHeight(s, n)};
+    }
+
+    @Test
+    public void indexRoundTrips() throws IOException {
+        SpriteAtlas atlas = SpriteAtlas.pack(SETS, WIDTHS, HEIGHTS, 1024, PADDING);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        atlas.write(out);
+        SpriteAtlas read = SpriteAtlas.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(atlas.getWidth(), read.getWidth());
+        assertEquals(atlas.getHeight(), read.getHeight());
+        assertEquals(1, read.findSet("explosion"));
+        assertEquals(-1, read.findSet("missing"));
+        for (int s = 0; s < SETS.length; s++) {
+            assertEquals(SETS[s], read.getSetName(s));
+            assertEquals(atlas.getFrameCount(s), read.getFrameCount(s));
+            for (int f = 0; f < atlas.getFrameCount(s); f++) {
+                assertEquals(atlas.getFrameX(s, f), read.getFrameX(s, f));
+                assertEquals(atlas.getFrameY(s, f), read.getFrameY(s, f));
+                assertEquals(atlas.getFrameWidth(s, f), read.getFrameWidth(s, f));
+                assertEquals(atlas.getFrameHeight(s, f), read.getFrameHeight(s, f));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        SpriteAtlas.read(new ByteArrayInputStream("PNG and more".getBytes()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFramesWiderThanTheAtlas() {
+        SpriteAtlas.pack(new String[]{"wide"}, new int[][]{{500}}, new int[][]{{10}}, 400, PADDING);
+    }
+
+    @Test
+    public void picksTheNearestDenserBucket() {
+        assertEquals("mdpi", SpriteAtlas.DENSITIES[SpriteAtlas.pickDensity(120)]);
+        assertEquals("xhdpi", SpriteAtlas.DENSITIES[SpriteAtlas.pickDensity(320)]);
+        assertEquals("xxhdpi", SpriteAtlas.DENSITIES[SpriteAtlas.pickDensity(420)]);
+        assertEquals("xxxhdpi", SpriteAtlas.DENSITIES[SpriteAtlas.pickDensity(800)]);
+    }
+}
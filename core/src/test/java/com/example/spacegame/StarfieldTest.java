@@ -0,0 +1,56 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StarfieldTest {
+
+    @Test
+    public void tileShrinksToFitMemoryBudget() {
+        Starfield roomy = new Starfield(1, 1080, 2400, 4 * 1024 * 1024);
+        assertEquals(Starfield.MAX_TILE_SIZE, roomy.getTileSize());
+
+        Starfield tight = new Starfield(1, 1080, 2400, 100 * 1024);
+        assertEquals(128, tight.getTileSize());
+        assertTrue(tight.getResidentBytes() <= 100 * 1024);
+    }
+
+    @Test
+    public void tilesCoverScreenWhileScrolling() {
+        Starfield starfield = new Starfield(1, 1080, 2400, 256 * 1024);
+        int tile = starfield.getTileSize();
+        RenderCommandBuffer commands = new RenderCommandBuffer();
+
+        for (float time = 0; time < 60_000; time += 1234.5f) {
+            commands.clear();
+            starfield.record(time, commands);
+
+            // Tiles must reach past both screen edges
+            float[] top = {Float.MAX_VALUE};
+            float[] bottom = {-Float.MAX_VALUE};
+            commands.submit((sprite, frame, x, y, count) -> {
+                if (sprite != SceneRecorder.SPRITE_BACKGROUND) {
+                    return;
+                }
+                for (int i = 0; i < count; i++) {
+                    top[0] = Math.min(top[0], y[i]);
+                    bottom[0] = Math.max(bottom[0], y[i] + tile);
+                }
+            });
+            assertTrue(top[0] <= 0);
+            assertTrue(bottom[0] >= 2400);
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameLayout() {
+        Starfield a = new Starfield(9, 1080, 2400, 256 * 1024);
+        Starfield b = new Starfield(9, 1080, 2400, 256 * 1024);
+        assertEquals(a.getTileStarCount(), b.getTileStarCount());
+        for (int i = 0; i < a.getTileStarCount(); i++) {
+            assertEquals(a.getTileStarX(i), b.getTileStarX(i));
+            assertEquals(a.getTileStarY(i), b.getTileStarY(i));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StartupTraceTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void recordsPhasesRelativeToStart() {
+        StartupTrace trace = new StartupTrace(1000 * MS);
+        trace.record("view", 1100 * MS, 1105 * MS);
+        trace.record("sprites", 1105 * MS, 1180 * MS);
+
+        assertEquals(2, trace.getPhaseCount());
+        assertEquals("sprites", trace.getPhaseName(1));
+        assertEquals(105 * MS, trace.getPhaseOffsetNanos(1));
+        assertEquals(75 * MS, trace.getPhaseDurationNanos(1));
+
+        StringBuilder out = new StringBuilder();
+        trace.dump(out);
+        assertTrue(out.toString().contains("sprites 105 75\n"));
+        assertTrue(out.toString().contains("first frame -, interactive -\n"));
+    }
+
+    @Test
+    public void keepsTheFirstFrameAndColdStartMarks() {
+        StartupTrace trace = new StartupTrace(1000 * MS);
+        assertEquals(-1, trace.getFirstFrameNanos());
+        assertEquals(-1, trace.getColdStartNanos());
+
+        trace.markFirstFrame(1120 * MS);
+        trace.markFirstFrame(1130 * MS);
+        assertTrue(trace.markInteractive(1250 * MS));
+        assertFalse(trace.markInteractive(1300 * MS));
+
+        assertEquals(120 * MS, trace.getFirstFrameNanos());
+        assertEquals(250 * MS, trace.getColdStartNanos());
+    }
+
+    @Test
+    public void interactiveFrameIsAlsoTheFirstFrameIfNothingCameBefore() {
+        StartupTrace trace = new StartupTrace(0);
+        trace.markInteractive(40 * MS);
+        assertEquals(40 * MS, trace.getFirstFrameNanos());
+    }
+}
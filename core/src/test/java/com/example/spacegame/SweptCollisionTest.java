@@ -0,0 +1,124 @@
+package com.example.spacegame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SweptCollisionTest {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+
+    // No spawns, the tests place every stone themselves
+    private static final WaveSchedule NO_STONES = WaveSchedule.parse("wave 0\nrate 0:0\n");
+
+    private GameWorld world;
+    private GameInput input;
+
+    @Before
+    public void setUp() {
+        world = new GameWorld(SCREEN_WIDTH, SCREEN_HEIGHT, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), 1,
+                GameWorld.STONE_CAPACITY, GameWorld.BULLET_CAPACITY, NO_STONES);
+        input = new GameInput();
+    }
+
+    @Test
+    public void findsTheFirstMomentOfOverlap() {
+        // 10 wide box moving right by 40 towards a static one 20 away
+        assertEquals(0.5f, SweptAabb.timeOfImpact(0, 0, 10, 10, 40, 0, 30, 0, 10, 10, 0, 0), 1e-6f);
+
+        // Moving towards each other halves the time
+        assertEquals(0.25f, SweptAabb.timeOfImpact(0, 0, 10, 10, 40, 0, 30, 0, 10, 10, -40, 0), 1e-6f);
+
+        // Already overlapping
+        assertEquals(0f, SweptAabb.timeOfImpact(0, 0, 10, 10, 5, 5, 5, 5, 10, 10, 0, 0), 0f);
+
+        // Passes right through: the end positions don't overlap but the path does
+        assertEquals(0.1f, SweptAabb.timeOfImpact(0, 0, 10, 10, 0, 200, 0, 30, 10, 10, 0, 0), 1e-6f);
+    }
+
+    @Test
+    public void missesWhenThePathsDontOverlap() {
+        // Touching edges only
+        assertEquals(SweptAabb.NO_HIT, SweptAabb.timeOfImpact(0, 0, 10, 10, 20, 0, 30, 0, 10, 10, 0, 0), 0f);
+
+        // Moving apart
+        assertEquals(SweptAabb.NO_HIT, SweptAabb.timeOfImpact(0, 0, 10, 10, -40, 0, 30, 0, 10, 10, 0, 0), 0f);
+
+        // Side by side on a parallel path
+        assertEquals(SweptAabb.NO_HIT, SweptAabb.timeOfImpact(0, 0, 10, 10, 0, 200, 10, 30, 10, 10, 0, 0), 0f);
+
+        // Crossing the line of motion behind the other box
+        assertEquals(SweptAabb.NO_HIT, SweptAabb.timeOfImpact(0, 0, 10, 10, 100, 0, 50, -100, 10, 10, 0, 50), 0f);
+    }
+
+    @Test
+    public void fastStoneCantTunnelThroughThePlayer() {
+        // Ends the tick below the player without ever being on screen over it at a tick boundary
+        EntityStore stones = world.getStones();
+        stones.add(world.getPlayerX(), world.getPlayerY() - 119 - 10, 240, 1, 0);
+
+        world.tick(input);
+        assertEquals(2, world.getLives());
+        assertTrue(stones.hasFlag(0, EntityStore.FLAG_EXPLODING));
+        assertTrue(stones.y[0] > world.getPlayerY() + 100);
+    }
+
+    @Test
+    public void bulletHitsStoneThatPassesItWithinATick() {
+        EntityStore stones = world.getStones();
+        EntityStore bullets = world.getBullets();
+        stones.add(500, 600, 600, 1, 0);
+        bullets.add(540, 1000, 20, 1, 0);
+        bullets.add(540, 1100, 20, 1, 0);
+
+        // Both bullets end the tick above the stone
+        world.tick(input);
+        assertTrue(stones.hasFlag(0, EntityStore.FLAG_EXPLODING));
+        assertEquals(10, world.getScore());
+
+        // The first bullet on the stone's path stops it, the one behind flies on
+        assertEquals(1, bullets.size());
+        assertEquals(1080, bullets.y[0]);
+    }
+
+    @Test
+    public void hitsResolveInTimeOrder() {
+        EntityStore stones = world.getStones();
+        EntityStore bullets = world.getBullets();
+
+        // A fast stone reaches the bullet added second first, then the one added first
+        stones.add(500, 600, 400, 1, 0);
+        bullets.add(540, 1000, 20, 1, 0);
+        bullets.add(600, 800, 20, 1, 0);
+
+        // Behind the fast stone on the first bullet's path, reached after it
+        stones.add(440, 864, 0, 1, 0);
+
+        world.tick(input);
+        assertEquals(0, bullets.size());
+        assertTrue(stones.hasFlag(0, EntityStore.FLAG_EXPLODING));
+        assertTrue(stones.hasFlag(1, EntityStore.FLAG_EXPLODING));
+        assertEquals(20, world.getScore());
+    }
+
+    @Test
+    public void toughStoneTakesOneHitPerBullet() {
+        EntityStore stones = world.getStones();
+        EntityStore bullets = world.getBullets();
+        stones.add(500, 600, 400, 2, 0);
+        bullets.add(540, 1000, 20, 1, 0);
+        bullets.add(600, 800, 20, 1, 0);
+        bullets.add(560, 1050, 20, 1, 0);
+
+        world.tick(input);
+        assertTrue(stones.hasFlag(0, EntityStore.FLAG_EXPLODING));
+        assertEquals(0, stones.health[0]);
+        assertEquals(10, world.getScore());
+
+        // The third bullet is only reached after the second hit destroyed the stone
+        assertEquals(1, bullets.size());
+        assertEquals(1030, bullets.y[0]);
+    }
+}
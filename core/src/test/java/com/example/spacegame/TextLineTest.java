@@ -0,0 +1,28 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextLineTest {
+
+    @Test
+    public void formatsNumbers() {
+        TextLine line = new TextLine();
+        assertEquals("0", line.append(0).toString());
+        assertEquals("Vidas: 3", line.clear().append("Vidas: ").append(3).toString());
+        assertEquals("-42 1234567890", line.clear().append(-42).append(' ').append(1234567890L).toString());
+        assertEquals(Long.toString(Long.MIN_VALUE), line.clear().append(Long.MIN_VALUE).toString());
+        assertEquals(Long.toString(Long.MAX_VALUE), line.clear().append(Long.MAX_VALUE).toString());
+    }
+
+    @Test
+    public void growsAndPads() {
+        TextLine line = new TextLine(1);
+        for (int i = 0; i < 100; i++) {
+            line.append(i % 10);
+        }
+        assertEquals(100, line.length());
+        assertEquals("ab   |", line.clear().append("ab").padTo(5).append('|').toString());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TouchQueueTest {
+
+    @Test
+    public void returnsEventsInOrderAndDropsWhenFull() {
+        TouchQueue queue = new TouchQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i, -i, 100 + i));
+        }
+        assertFalse(queue.offer(9, 9, 9));
+        assertEquals(1, queue.getOverflowCount());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.poll());
+            assertEquals(i, queue.getPolledX(), 0f);
+            assertEquals(-i, queue.getPolledY(), 0f);
+            assertEquals(100 + i, queue.getPolledTime());
+        }
+        assertFalse(queue.poll());
+
+        // Freed slots are reused
+        assertTrue(queue.offer(5, 5, 5));
+        queue.clear();
+        assertFalse(queue.poll());
+    }
+
+    @Test
+    public void handsOverEveryEventAcrossThreads() throws InterruptedException {
+        TouchQueue queue = new TouchQueue(16);
+        int count = 500_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= count; i++) {
+                while (!queue.offer(i, i, i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        producer.start();
+
+        long expected = 1;
+        while (expected <= count) {
+            if (queue.poll()) {
+                assertEquals(expected, queue.getPolledTime());
+                assertEquals((float) expected, queue.getPolledX(), 0f);
+                expected++;
+            }
+        }
+        producer.join();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TripleBufferTest {
+
+    private static TripleBuffer<long[]> newBuffer() {
+        return new TripleBuffer<>(new long[64], new long[64], new long[64]);
+    }
+
+    @Test
+    public void readerGetsNewestPublished() {
+        TripleBuffer<long[]> buffer = newBuffer();
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+        buffer.getWriteBuffer()[0] = 2;
+        buffer.publish();
+
+        assertEquals(2, buffer.acquire()[0]);
+        assertEquals(1, buffer.getDroppedCount());
+
+        assertEquals(2, buffer.acquire()[0]);
+        assertEquals(1, buffer.getDuplicatedCount());
+    }
+
+    @Test
+    public void writerNeverWritesTheReadersBuffer() {
+        TripleBuffer<long[]> buffer = newBuffer();
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+        long[] read = buffer.acquire();
+
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(read, buffer.getWriteBuffer());
+            buffer.publish();
+        }
+    }
+
+    @Test
+    public void concurrentReaderNeverSeesTornValues() throws InterruptedException {
+        TripleBuffer<long[]> buffer = newBuffer();
+        int publishes = 200_000;
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            for (long n = 1; n <= publishes; n++) {
+                long[] values = buffer.getWriteBuffer();
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = n;
+                }
+                buffer.publish();
+            }
+        });
+        writer.start();
+
+        long last = 0;
+        while (last < publishes && failure.get() == null) {
+            long[] values = buffer.acquire();
+            for (long value : values) {
+                if (value != values[0]) {
+                    failure.set("torn snapshot: " + value + " and " + values[0]);
+                }
+            }
+            if (values[0] < last) {
+                failure.set("went back from " + last + " to " + values[0]);
+            }
+            last = values[0];
+        }
+        writer.join();
+
+        assertNull(failure.get());
+        assertEquals(publishes, buffer.getPublishedCount());
+    }
+}
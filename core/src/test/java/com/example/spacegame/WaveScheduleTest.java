@@ -0,0 +1,184 @@
+package com.example.spacegame;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class WaveScheduleTest {
+    private static final int SCREEN_WIDTH = 1080;
+
+    private static GameWorld newWorld(long seed, WaveSchedule schedule, int capacity) {
+        return new GameWorld(SCREEN_WIDTH, 1920, new SpriteSize(96, 100),
+                new SpriteSize(122, 119), new SpriteSize(36, 37), seed, capacity, capacity, schedule);
+    }
+
+    @Test
+    public void classicSpawnsWhatTheOldSpawnerDid() {
+        long seed = 99;
+        GameWorld world = newWorld(seed, WaveSchedule.CLASSIC, GameWorld.STONE_CAPACITY);
+        world.setInvulnerable(true);
+        GameInput input = new GameInput();
+
+        // The draws of the spawner before wave schedules, on its own copy of the world's
+        // random sequence, every two seconds without its one tick of drift per stone
+        Random random = new Random(seed);
+        long nextStoneTime = 2000;
+        int spawns = 0;
+        for (int tick = 0; tick < 20_000; tick++) {
+            world.tick(input);
+            long now = world.getTimeMillis();
+            if (now >= nextStoneTime) {
+                nextStoneTime += 2000;
+                int x = random.nextInt(SCREEN_WIDTH - 100);
+                int health = random.nextInt(3) + 1;
+                int speed = 10 - health + 5;
+
+                // Compaction may have moved it, but it's the only stone still at the top
+                EntityStore stones = world.getStones();
+                int s = 0;
+                while (stones.y[s] != 0) {
+                    s++;
+                }
+                assertEquals(x, stones.x[s]);
+                assertEquals(health, stones.health[s]);
+                assertEquals(speed, stones.speed[s]);
+                spawns++;
+            } else {
+                for (int s = 0; s < world.getStones().size(); s++) {
+                    assertNotEquals(0, world.getStones().y[s]);
+                }
+            }
+        }
+        assertTrue(spawns > 150);
+    }
+
+    @Test
+    public void spawnsAtTheAverageRateOfTheCurve() {
+        // Up to three spawns per tick at the end, each a burst of one
+        WaveSchedule schedule = WaveSchedule.parse(
+                "wave 0\n"
+                        + "rate 0:10 10000:180\n");
+        assertSpawns(schedule, 10_000, (10 + 180) / 2f * 10);
+        assertSpawns(schedule, 20_000, (10 + 180) / 2f * 10 + 180 * 10);
+
+        // STRESS counts stones, 4 to 8 per spawn
+        float spawns = (2 + 60) / 2f * 60;
+        int stones = assertSpawns(WaveSchedule.STRESS, 60_000, 6 * spawns);
+        assertTrue("Spawned " + stones, stones >= 4 * spawns && stones <= 8 * spawns);
+    }
+
+    // Stones the scheduler spawns over the first durationMillis, checked
+    // against what the curve adds up to, to 1%
+    private static int assertSpawns(WaveSchedule schedule, long durationMillis, float expected) {
+        WaveScheduler scheduler = new WaveScheduler(schedule);
+        scheduler.reset(0);
+        Random random = new Random(3);
+        int stones = 0;
+        for (long tick = 1; tick * GameWorld.STEP_NANOS / 1_000_000 <= durationMillis; tick++) {
+            stones += scheduler.update(tick * GameWorld.STEP_NANOS / 1_000_000, random);
+        }
+        assertEquals(expected, stones, expected * 0.01f);
+        return stones;
+    }
+
+    @Test
+    public void interpolatesRatesAndMovesThroughWaves() {
+        WaveSchedule schedule = WaveSchedule.parse(
+                "wave 10000  # first\n"
+                        + "rate 0:1 5000:3\n"
+                        + "\n"
+                        + "wave 0\n"
+                        + "rate 0:10\n"
+                        + "burst 2 2\n"
+                        + "health 0 0 0 1\n");
+        assertEquals(2, schedule.getWaveCount());
+        assertEquals(1f, schedule.getRate(0, 0), 0f);
+        assertEquals(2f, schedule.getRate(0, 2500), 1e-6f);
+        assertEquals(3f, schedule.getRate(0, 9000), 0f);
+
+        // The second wave spawns pairs of health 4 stones ten times a second
+        GameWorld world = newWorld(1, schedule, 4096);
+        world.setInvulnerable(true);
+        GameInput input = new GameInput();
+        while (world.getTimeMillis() < 10_000) {
+            world.tick(input);
+        }
+        assertEquals(1, world.getWave());
+        for (int i = 0; i < 60; i++) {
+            world.tick(input);
+        }
+        int secondWave = 0;
+        for (int s = 0; s < world.getStones().size(); s++) {
+            if (world.getStones().health[s] == 4) {
+                secondWave++;
+            }
+        }
+        assertTrue("Spawned " + secondWave, secondWave >= 20 && secondWave <= 22);
+    }
+
+    @Test
+    public void picksHealthByWeightAndSpeedFromIt() {
+        WaveSchedule schedule = WaveSchedule.parse(
+                "wave 0\n"
+                        + "health 0 3 1\n"
+                        + "speed 20 4 0\n");
+        assertEquals(3, schedule.getMaxHealth(0));
+        assertEquals(4, schedule.getHealthTotal(0));
+        assertEquals(2, schedule.pickHealth(0, 0));
+        assertEquals(2, schedule.pickHealth(0, 2));
+        assertEquals(3, schedule.pickHealth(0, 3));
+        assertEquals(12, schedule.getSpeed(0, 2));
+    }
+
+    @Test
+    public void rejectsBrokenSchedules() {
+        assertParseError("", "no waves");
+        assertParseError("rate 0:1\n", "line 1");
+        assertParseError("wave 0\nburst 3 1\n", "line 2");
+        assertParseError("wave 0\nrate 1000:1 500:2\n", "line 2");
+        assertParseError("wave 0\nrate 0:-1\n", "line 2");
+        assertParseError("wave 0\n\nfoo 1\n", "line 3");
+        assertParseError("wave 0\nhealth 0 0\n", "line 2");
+        assertParseError("wave 0\nspeed 5 2 0\n", "wave 1");
+    }
+
+    private static void assertParseError(String source, String message) {
+        try {
+            WaveSchedule.parse(source);
+            fail("Parsed " + source);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void stressRampsToThousandsOfStones() {
+        GameWorld world = newWorld(5, WaveSchedule.STRESS, 8192);
+        world.setInvulnerable(true);
+        GameInput input = new GameInput();
+        for (int i = 0; i < 90 * 60; i++) {
+            world.tick(input);
+        }
+        assertTrue(world.getStones().size() > 1000);
+        assertEquals(3, world.getLives());
+    }
+
+    @Test
+    public void loadCurveBucketsByEntityCount() {
+        LoadCurve curve = new LoadCurve(100, 1000);
+        curve.record(50, 1_000_000);
+        curve.record(99, 3_000_000);
+        curve.record(5000, 9_000_000);
+        assertEquals(2, curve.getBucket(0).getCount());
+        assertEquals(1, curve.getBucket(1000).getCount());
+
+        StringBuilder out = new StringBuilder();
+        curve.dump("tick", out);
+        String report = out.toString();
+        assertTrue(report, report.startsWith("tick entities"));
+        assertTrue(report, report.contains("\n0 2 "));
+        assertTrue(report, report.contains("\n1000+ 1 "));
+    }
+}
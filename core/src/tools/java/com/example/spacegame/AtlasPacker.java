@@ -0,0 +1,224 @@
+package com.example.spacegame;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Build-time packer for the app's sprite atlases, run by :app:packSpriteAtlas.
+ *
+ *     AtlasPacker <sprite dir> <asset output dir> <report file>
+ *
+ * Reads the sprite list sprites.txt from the sprite dir, scales every frame
+ * to its final size for each SpriteAtlas density bucket and writes one atlas
+ * image and index per bucket. The report compares each atlas with decoding
+ * the frames one PNG at a time and scaling them at runtime: pixels kept in
+ * memory, bytes decoded and decode time on this machine.
+ */
+public final class AtlasPacker {
+
+    private static final String SPRITE_LIST = "sprites.txt";
+    private static final int MAX_WIDTH = 2048;
+    private static final int PADDING = 2;
+    private static final int DECODE_RUNS = 5;
+
+    private static final class SpriteSet {
+        final String name;
+        final float scale;
+        final List<BufferedImage> frames = new ArrayList<>();
+        final List<File> files = new ArrayList<>();
+
+        SpriteSet(String name, float scale) {
+            this.name = name;
+            this.scale = scale;
+        }
+    }
+
+    private AtlasPacker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: AtlasPacker <sprite dir> <asset output dir> <report file>");
+            System.exit(2);
+        }
+        List<SpriteSet> sets = readSpriteList(new File(args[0]));
+        File outDir = new File(args[1]);
+        File reportFile = new File(args[2]);
+
+        StringBuilder report = new StringBuilder();
+        int frameCount = 0;
+        for (SpriteSet set : sets) {
+            frameCount += set.frames.size();
+        }
+        report.append(String.format(Locale.US, "Sprite atlases: %d frames in %d sets%n", frameCount, sets.size()));
+        report.append(String.format(Locale.US, "%-8s %-10s %9s %9s %9s   %s%n",
+                "density", "atlas", "memory", "png", "decode", "decoded when scaling at runtime"));
+
+        long sourceDecodeNanos = timeSourceDecode(sets);
+        for (int d = 0; d < SpriteAtlas.DENSITIES.length; d++) {
+            String density = SpriteAtlas.DENSITIES[d];
+            float densityScale = (float) SpriteAtlas.DENSITY_DPI[d] / SpriteAtlas.BASE_DPI;
+            File image = new File(outDir, SpriteAtlas.imagePath(density));
+            File index = new File(outDir, SpriteAtlas.indexPath(density));
+            long runtimeBytes = pack(sets, densityScale, image, index);
+
+            SpriteAtlas atlas;
+            try (InputStream in = Files.newInputStream(index.toPath())) {
+                atlas = SpriteAtlas.read(in);
+            }
+            long atlasBytes = 4L * atlas.getWidth() * atlas.getHeight();
+            long decodeNanos = timeDecode(image);
+            report.append(String.format(Locale.US, "%-8s %-10s %9s %9s %6.1f ms   %s%n",
+                    density, atlas.getWidth() + "x" + atlas.getHeight(), kilobytes(atlasBytes),
+                    kilobytes(image.length()), decodeNanos / 1e6, kilobytes(runtimeBytes)));
+        }
+        report.append(String.format(Locale.US, "Decoding the %d source PNGs one by one: %.1f ms%n",
+                frameCount, sourceDecodeNanos / 1e6));
+        report.append("Memory is ARGB_8888 bytes; decode times are the best of ")
+                .append(DECODE_RUNS).append(" runs on the build machine\n");
+
+        reportFile.getParentFile().mkdirs();
+        Files.write(reportFile.toPath(), report.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(report);
+    }
+
+    // Parses the sprite list and loads every frame
+    private static List<SpriteSet> readSpriteList(File dir) throws IOException {
+        List<SpriteSet> sets = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(new File(dir, SPRITE_LIST).toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String[] fields = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if (fields[0].isEmpty()) {
+                continue;
+            }
+            if (fields.length < 3) {
+                throw new IOException(SPRITE_LIST + ":" + lineNumber + ": expected <set> <scale> <frames>");
+            }
+            SpriteSet set;
+            try {
+                set = new SpriteSet(fields[0], Float.parseFloat(fields[1]));
+            } catch (NumberFormatException e) {
+                throw new IOException(SPRITE_LIST + ":" + lineNumber + ": bad scale " + fields[1]);
+            }
+            for (int i = 2; i < fields.length; i++) {
+                File file = new File(dir, fields[i]);
+                BufferedImage frame = ImageIO.read(file);
+                if (frame == null) {
+                    throw new IOException(SPRITE_LIST + ":" + lineNumber + ": can't read " + file);
+                }
+                set.files.add(file);
+                set.frames.add(frame);
+            }
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    // Writes one bucket's atlas; returns the bytes the runtime decoded before
+    // scaling when every frame was its own density-scaled resource
+    private static long pack(List<SpriteSet> sets, float densityScale, File image, File index)
+            throws IOException {
+        String[] names = new String[sets.size()];
+        int[][] widths = new int[sets.size()][];
+        int[][] heights = new int[sets.size()][];
+        long runtimeBytes = 0;
+        for (int s = 0; s < sets.size(); s++) {
+            SpriteSet set = sets.get(s);
+            names[s] = set.name;
+            widths[s] = new int[set.frames.size()];
+            heights[s] = new int[set.frames.size()];
+            for (int f = 0; f < set.frames.size(); f++) {
+                BufferedImage frame = set.frames.get(f);
+                widths[s][f] = Math.max(1, Math.round(frame.getWidth() * set.scale * densityScale));
+                heights[s][f] = Math.max(1, Math.round(frame.getHeight() * set.scale * densityScale));
+                runtimeBytes += 4L * Math.round(frame.getWidth() * densityScale)
+                        * Math.round(frame.getHeight() * densityScale);
+            }
+        }
+        SpriteAtlas atlas = SpriteAtlas.pack(names, widths, heights, MAX_WIDTH, PADDING);
+
+        BufferedImage pixels = new BufferedImage(atlas.getWidth(), atlas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = pixels.createGraphics();
+        for (int s = 0; s < sets.size(); s++) {
+            for (int f = 0; f < atlas.getFrameCount(s); f++) {
+                BufferedImage frame = resize(sets.get(s).frames.get(f),
+                        atlas.getFrameWidth(s, f), atlas.getFrameHeight(s, f));
+                g.drawImage(frame, atlas.getFrameX(s, f), atlas.getFrameY(s, f), null);
+            }
+        }
+        g.dispose();
+
+        image.getParentFile().mkdirs();
+        ImageIO.write(pixels, "png", image);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(index.toPath()))) {
+            atlas.write(out);
+        }
+        return runtimeBytes;
+    }
+
+    // Halves the image until it's within 2x of the target, then filters to the exact size,
+    // so large reductions still average every source pixel
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() == width && current.getHeight() == height) {
+            return current;
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    private static long timeDecode(File image) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < DECODE_RUNS; run++) {
+            long start = System.nanoTime();
+            ImageIO.read(image);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    // Decoding every source PNG once, as the runtime did before scaling them
+    private static long timeSourceDecode(List<SpriteSet> sets) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < DECODE_RUNS; run++) {
+            long start = System.nanoTime();
+            for (SpriteSet set : sets) {
+                for (File file : set.files) {
+                    ImageIO.read(file);
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static String kilobytes(long bytes) {
+        return (bytes + 512) / 1024 + " KB";
+    }
+}